@@ -23,10 +23,22 @@ CREATE TABLE IF NOT EXISTS homestays (
     location VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
     price DOUBLE NOT NULL,
+    -- Guests the homestay sleeps
+    capacity INT NOT NULL DEFAULT 2,
+    -- Map position in WGS84 degrees; NULL when unknown
+    latitude DOUBLE NULL,
+    longitude DOUBLE NULL,
+    -- Availability calendar (one 366-bit set per year, see AvailabilityCalendar)
+    availability VARBINARY(4096) NULL,
+    -- Keyset order of the search (price, id), also within a guest-count range
+    INDEX idx_homestays_price_id (price, id),
+    INDEX idx_homestays_capacity_price (capacity, price, id),
+    INDEX idx_homestays_lat_lng (latitude, longitude),
     FOREIGN KEY (host_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
--- Available dates for homestays (one-to-many)
+-- Legacy per-night availability. The app no longer reads this table directly: on startup
+-- AvailabilityMigration copies the rows of homestays with an empty availability column into it.
 CREATE TABLE IF NOT EXISTS homestay_available_dates (
     homestay_id BIGINT NOT NULL,
     available_date DATE NOT NULL,
@@ -54,14 +66,15 @@ INSERT INTO users (email, password, name, role) VALUES
 SET @host_id = (SELECT id FROM users WHERE email = 'host@example.com');
 
 -- Seed 5 homestays in Andhra Pradesh
-INSERT INTO homestays (host_id, location, description, price) VALUES 
-(@host_id, 'Visakhapatnam', 'Cozy homestay near RK Beach, authentic Andhra hospitality.', 1500.0),
-(@host_id, 'Vijayawada', 'Traditional home with home-cooked meals, near Kanaka Durga Temple.', 1200.0),
-(@host_id, 'Guntur', 'Family-friendly stay in the heart of Andhra, close to local markets.', 1000.0),
-(@host_id, 'Tirupati', 'Spiritual retreat near Tirumala Temple, peaceful and clean.', 2000.0),
-(@host_id, 'Kurnool', 'Rustic village homestay with views of Belum Caves nearby.', 800.0);
+INSERT INTO homestays (host_id, location, description, price, capacity, latitude, longitude) VALUES 
+(@host_id, 'Visakhapatnam', 'Cozy homestay near RK Beach, authentic Andhra hospitality.', 1500.0, 4, 17.7145, 83.3237),
+(@host_id, 'Vijayawada', 'Traditional home with home-cooked meals, near Kanaka Durga Temple.', 1200.0, 6, 16.5150, 80.6060),
+(@host_id, 'Guntur', 'Family-friendly stay in the heart of Andhra, close to local markets.', 1000.0, 5, 16.3067, 80.4365),
+(@host_id, 'Tirupati', 'Spiritual retreat near Tirumala Temple, peaceful and clean.', 2000.0, 3, 13.6288, 79.4192),
+(@host_id, 'Kurnool', 'Rustic village homestay with views of Belum Caves nearby.', 800.0, 8, 15.8281, 78.0373);
 
--- Seed available dates for each homestay (future dates for MVP testing)
+-- Seed available dates for each homestay (future dates for MVP testing); moved into
+-- homestays.availability the first time the app starts
 -- Homestay 1 (Visakhapatnam)
 INSERT INTO homestay_available_dates (homestay_id, available_date) VALUES 
 (1, '2025-10-01'), (1, '2025-10-02'), (1, '2025-10-03');
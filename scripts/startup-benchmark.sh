@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Cold-start comparison of what the startup profile builds: the packaged jar, the extracted jar
+# and the extracted jar with its AppCDS archive (with AOT sources too when built with -Pstartup,aot).
+# Prints time to ready (/actuator/health/readiness) and RSS for every boot.
+#
+#   ./mvnw -Pstartup package -DskipTests
+#   scripts/startup-benchmark.sh
+#
+# The database is an H2 stand-in in MySQL mode, a file under target/startup-benchmark recreated on
+# each invocation and seeded by one uncounted boot, so every measured boot starts against existing
+# data like an instance added by the autoscaler. Environment:
+#   RUNS       boots per variant (default 5)
+#   JAVA_OPTS  extra JVM flags for every variant, e.g. "-Xmx512m -XX:TieredStopAtLevel=1"
+set -eu
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+JAVA_OPTS=${JAVA_OPTS:-}
+OUT=target/startup-benchmark
+JAR=$(ls target/stayfinder-*.jar)
+EXTRACTED=target/startup/$(basename "$JAR")
+ARCHIVE=target/startup/application.jsa
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "$ARCHIVE not found; build it with ./mvnw -Pstartup package -DskipTests" >&2
+    exit 2
+fi
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+DB_ARGS=(
+    "--spring.datasource.url=jdbc:h2:file:$PWD/$OUT/db;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+    --spring.datasource.driver-class-name=org.h2.Driver
+    --spring.datasource.username=sa
+    --spring.datasource.password=
+)
+
+measure() {
+    local label=$1
+    shift
+    echo "== $label"
+    # shellcheck disable=SC2086
+    RUNS=$RUNS LOG=$OUT/$label.log scripts/time-to-first-request.sh $JAVA_OPTS "$@" "${DB_ARGS[@]}"
+}
+
+echo "Seeding the stand-in database"
+RUNS=1 LOG=$OUT/seed.log scripts/time-to-first-request.sh -jar "$JAR" "${DB_ARGS[@]}" > /dev/null
+
+measure jar -jar "$JAR"
+measure extracted -jar "$EXTRACTED"
+if jar tf "$EXTRACTED" | grep -q '__ApplicationContextInitializer'; then
+    measure extracted-aot -Dspring.aot.enabled=true -jar "$EXTRACTED"
+    measure cds-aot -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$EXTRACTED"
+else
+    measure cds -XX:SharedArchiveFile="$ARCHIVE" -jar "$EXTRACTED"
+fi
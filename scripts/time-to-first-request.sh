@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Starts the app, waits for the first successful response and prints how long that took and
+# the resident memory (RSS) of the JVM at that point.
+#
+#   ./mvnw -q package -DskipTests
+#   scripts/time-to-first-request.sh -jar target/stayfinder-0.0.1-SNAPSHOT.jar
+#
+# Everything after the script name is passed to `java`. Environment:
+#   RUNS  number of boots to measure (default 3); each boot reuses the same database, so the
+#         first run of an empty database includes demo seeding and later runs show a restart
+#   URL   request to wait for (default http://localhost:8080/actuator/health/readiness). Tomcat
+#         answers pages before the startup runners finish; readiness turns 200 only after them,
+#         so the default includes migration, demo seeding and --import
+#   LOG   where the app's output goes (default /tmp/stayfinder-startup.log)
+set -u
+
+RUNS=${RUNS:-3}
+URL=${URL:-http://localhost:8080/actuator/health/readiness}
+LOG=${LOG:-/tmp/stayfinder-startup.log}
+
+if [ $# -eq 0 ]; then
+    echo "usage: $0 <java arguments...>" >&2
+    exit 2
+fi
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    java "$@" > "$LOG" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "app exited before answering; see $LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    echo "run $run: first request answered after $(( (end - start) / 1000000 )) ms, RSS $(( rss / 1024 )) MB"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+done
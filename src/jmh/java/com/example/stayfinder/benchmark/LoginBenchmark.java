@@ -0,0 +1,150 @@
+package com.example.stayfinder.benchmark;
+
+import com.example.stayfinder.config.CacheConfig;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.UserRepository;
+import com.example.stayfinder.security.CustomUserDetailsService;
+import com.example.stayfinder.security.SecurityConfig;
+import com.example.stayfinder.service.UserService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Form login cost: {@link CustomUserDetailsService#loadUserByUsername} through a Spring-proxied
+ * {@link UserService}, with or without the users cache, followed by password verification with
+ * the encoder {@link SecurityConfig} builds for a given BCrypt strength.
+ *
+ * The user table is in memory; {@code lookupMicros} adds a simulated database round trip to every
+ * uncached lookup. Throughput per core is the score divided by the thread count, e.g.
+ * {@code -Djmh.args="LoginBenchmark -t 4 -p strength=10,12"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx4g"})
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "hostpass";
+
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    @Param({"10", "12"})
+    private int strength;
+
+    @Param({"200"})
+    private int lookupMicros;
+
+    private AnnotationConfigApplicationContext context;
+    private CustomUserDetailsService userDetailsService;
+    private PasswordEncoder passwordEncoder;
+    private String[] emails;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordEncoder = new SecurityConfig().passwordEncoder("bcrypt", strength, new SimpleMeterRegistry());
+        // Hashing a million passwords would take hours; every user shares one hash of the same cost
+        String hash = passwordEncoder.encode(PASSWORD);
+        Map<String, User> table = new HashMap<>(users * 2);
+        emails = new String[1024];
+        for (int i = 0; i < users; i++) {
+            String email = "user" + i + "@example.com";
+            User user = new User(email, hash, "User " + i, User.Role.USER);
+            user.setId((long) i + 1);
+            table.put(email, user);
+            if (i < emails.length) {
+                emails[i] = email;
+            }
+        }
+        for (int i = users; i < emails.length; i++) {
+            emails[i] = emails[i % users];
+        }
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(UserRepository.class, () -> inMemoryRepository(table, lookupMicros));
+        context.registerBean(PasswordEncoder.class, () -> passwordEncoder);
+        context.registerBean(CacheManager.class, () -> cached ? userCache() : new NoOpCacheManager());
+        context.register(CachingConfig.class, UserService.class, CustomUserDetailsService.class);
+        context.refresh();
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUser() {
+        return userDetailsService.loadUserByUsername(nextEmail());
+    }
+
+    @Benchmark
+    public boolean loadUserAndVerifyPassword() {
+        UserDetails details = userDetailsService.loadUserByUsername(nextEmail());
+        return passwordEncoder.matches(PASSWORD, details.getPassword());
+    }
+
+    private String nextEmail() {
+        return emails[next.getAndIncrement() & (emails.length - 1)];
+    }
+
+    private static CacheManager userCache() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.USERS);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(5, TimeUnit.MINUTES));
+        return cacheManager;
+    }
+
+    static UserRepository inMemoryRepository(Map<String, User> table, int lookupMicros) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByEmail")) {
+                        if (lookupMicros > 0) {
+                            LockSupport.parkNanos(lookupMicros * 1000L);
+                        }
+                        return Optional.ofNullable(table.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.stayfinder.benchmark;
+
+import com.example.stayfinder.config.DistrictCatalog;
+import com.example.stayfinder.view.FragmentCacheDialect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.extras.springsecurity6.dialect.SpringSecurityDialect;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of the pages a signed-out visitor sees: the search form (navbar and district
+ * list), a page of search results and the demo bookings. Modes:
+ * <ul>
+ *   <li>{@code uncached}: templates re-read and parsed on every render, as with {@code spring.thymeleaf.cache=false}</li>
+ *   <li>{@code templates}: parsed templates cached</li>
+ *   <li>{@code fragments}: parsed templates and the {@code sf:cache} fragment output cached, as under the prod profile</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx2g"})
+public class PageRenderBenchmark {
+
+    @Param({"search", "search-results", "bookings"})
+    private String page;
+
+    @Param({"uncached", "templates", "fragments"})
+    private String mode;
+
+    private SpringTemplateEngine engine;
+    private IWebExchange exchange;
+    private Map<String, Object> variables;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(!"uncached".equals(mode));
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.addDialect(new SpringSecurityDialect());
+        engine.addDialect(new FragmentCacheDialect(() -> engine, new ConcurrentMapCache("fragments"), "fragments".equals(mode)));
+
+        // sec:authorize looks up the expression handler in the web application context
+        MockServletContext servletContext = new MockServletContext();
+        GenericWebApplicationContext applicationContext = new GenericWebApplicationContext(servletContext);
+        applicationContext.registerBean(DefaultWebSecurityExpressionHandler.class);
+        applicationContext.refresh();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "benchmark", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext, "GET", "/" + page), new MockHttpServletResponse());
+
+        variables = new HashMap<>();
+        switch (page) {
+            case "search" -> variables.put("districts", new DistrictCatalog(new ObjectMapper()).getDistricts());
+            case "search-results" -> {
+                variables.put("homestays", SyntheticData.homestays(20, 42));
+                variables.put("location", "Tirupati");
+                variables.put("checkIn", LocalDate.of(2026, 5, 1));
+                variables.put("checkOut", LocalDate.of(2026, 5, 4));
+            }
+            case "bookings" -> {
+                variables.put("bookings", List.of());
+                variables.put("demoMode", true);
+            }
+            default -> throw new IllegalArgumentException("Unknown page " + page);
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        StringWriter out = new StringWriter(64 * 1024);
+        engine.process(page, new WebContext(exchange, Locale.ENGLISH, variables), out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.stayfinder.benchmark;
+
+import com.example.stayfinder.index.AvailabilityIndex;
+import com.example.stayfinder.model.Homestay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the in-memory availability index behind
+ * {@code HomestayService.findAvailableByLocationAndDates}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx6g"})
+public class SearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int homestays;
+
+    private AvailabilityIndex index;
+
+    private final LocalDate checkIn = SyntheticData.FIRST_NIGHT.plusDays(120);
+    private final LocalDate checkOut = checkIn.plusDays(3);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new AvailabilityIndex();
+        for (Homestay homestay : SyntheticData.homestays(homestays, 42)) {
+            index.put(homestay);
+        }
+    }
+
+    @Benchmark
+    public List<Homestay> exactDistrict() {
+        return index.findAvailable("Tirupati", checkIn, checkOut);
+    }
+
+    @Benchmark
+    public List<Homestay> partialLocation() {
+        return index.findAvailable("god", checkIn, checkOut);
+    }
+
+    @Benchmark
+    public List<Homestay> noMatch() {
+        return index.findAvailable("Hyderabad", checkIn, checkOut);
+    }
+}
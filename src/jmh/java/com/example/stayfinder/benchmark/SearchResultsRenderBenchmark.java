@@ -0,0 +1,84 @@
+package com.example.stayfinder.benchmark;
+
+import com.example.stayfinder.model.Homestay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.extras.springsecurity6.dialect.SpringSecurityDialect;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of {@code search-results.html} (with the head and navbar fragments) for
+ * result sets of different sizes, taken from a synthetic catalogue. Templates are cached, as in
+ * production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx2g"})
+public class SearchResultsRenderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int results;
+
+    private SpringTemplateEngine engine;
+    private IWebExchange exchange;
+    private Map<String, Object> variables;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.addDialect(new SpringSecurityDialect());
+
+        MockServletContext servletContext = new MockServletContext();
+        exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext, "POST", "/search"), new MockHttpServletResponse());
+
+        List<Homestay> homestays = SyntheticData.homestays(results, 42);
+        variables = Map.of(
+                "homestays", homestays,
+                "location", "Tirupati",
+                "checkIn", LocalDate.of(2026, 5, 1),
+                "checkOut", LocalDate.of(2026, 5, 4));
+    }
+
+    @Benchmark
+    public String render() {
+        StringWriter out = new StringWriter(64 * 1024);
+        engine.process("search-results", new WebContext(exchange, Locale.ENGLISH, variables), out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.stayfinder.benchmark;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic listings for benchmarks: homestays spread over the Andhra Pradesh
+ * districts, each with a year of availability that has a few random gaps.
+ */
+public final class SyntheticData {
+
+    public static final String[] DISTRICTS = {
+            "Anakapalli", "Annamayya", "Anantapur", "Alluri Sitarama Raju", "Bapatla", "Chittoor",
+            "East Godavari", "Eluru", "Guntur", "Kadapa", "Kakinada", "Krishna", "Kurnool", "Nandyal",
+            "NTR", "Palnadu", "Parvathipuram Manyam", "Prakasam", "Srikakulam", "Sri Sathya Sai",
+            "Tirupati", "Visakhapatnam", "Vizianagaram", "West Godavari", "Konaseema", "Nellore"
+    };
+
+    public static final LocalDate FIRST_NIGHT = LocalDate.of(2026, 1, 1);
+    public static final int NIGHTS = 365;
+
+    private SyntheticData() {}
+
+    public static List<Homestay> homestays(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        User host = new User("host@example.com", "", "Synthetic Host", User.Role.HOST);
+        List<Homestay> homestays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<LocalDate> nights = new ArrayList<>(NIGHTS);
+            for (int n = 0; n < NIGHTS; n++) {
+                // Roughly one night in ten is blocked by the host
+                if (random.nextInt(10) != 0) {
+                    nights.add(FIRST_NIGHT.plusDays(n));
+                }
+            }
+            String district = DISTRICTS[random.nextInt(DISTRICTS.length)];
+            Homestay homestay = new Homestay(host, district, "Synthetic homestay " + i + " in " + district,
+                    500.0 + random.nextInt(4500), nights);
+            homestay.setId((long) i + 1);
+            homestays.add(homestay);
+        }
+        return homestays;
+    }
+}
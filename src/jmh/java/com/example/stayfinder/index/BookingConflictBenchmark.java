@@ -0,0 +1,82 @@
+package com.example.stayfinder.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict check cost of {@code BookingService.createBooking} for a hot listing with a long
+ * booking history: the range index against the previous scan over every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx4g"})
+public class BookingConflictBenchmark {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2000, 1, 1);
+
+    @Param({"1000", "100000", "1000000"})
+    private int bookings;
+
+    private BookingConflictIndex.BookedRanges ranges;
+    private List<LocalDate[]> history;
+    private LocalDate[][] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ranges = new BookingConflictIndex.BookedRanges();
+        history = new ArrayList<>(bookings);
+        LocalDate cursor = ORIGIN;
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < bookings; i++) {
+            // Back-to-back stays with the occasional free gap
+            cursor = cursor.plusDays(random.nextInt(3));
+            LocalDate checkOut = cursor.plusDays(1 + random.nextInt(4));
+            ranges.add(cursor, checkOut);
+            history.add(new LocalDate[]{cursor, checkOut});
+            cursor = checkOut;
+        }
+        long span = cursor.toEpochDay() - ORIGIN.toEpochDay();
+        probes = new LocalDate[1024][];
+        for (int i = 0; i < probes.length; i++) {
+            LocalDate checkIn = ORIGIN.plusDays(random.nextLong(span));
+            probes[i] = new LocalDate[]{checkIn, checkIn.plusDays(1 + random.nextInt(3))};
+        }
+    }
+
+    @Benchmark
+    public boolean rangeIndex() {
+        LocalDate[] probe = probes[next++ & (probes.length - 1)];
+        return ranges.overlaps(probe[0], probe[1]);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        LocalDate[] probe = probes[next++ & (probes.length - 1)];
+        for (LocalDate[] existing : history) {
+            if (probe[0].isBefore(existing[1]) && existing[0].isBefore(probe[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
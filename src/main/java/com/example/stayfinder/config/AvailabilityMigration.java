@@ -0,0 +1,118 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.model.AvailabilityCalendar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves availability from the old {@code homestay_available_dates} table (one row per night)
+ * into the {@code homestays.availability} calendar column.
+ *
+ * Runs before the other startup runners and only touches homestays whose calendar column is
+ * still empty, so it is a no-op once a database has been migrated. The old table is left in
+ * place; drop it by hand once the migration has been checked.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AvailabilityMigration implements CommandLineRunner {
+
+    static final String LEGACY_TABLE = "homestay_available_dates";
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        migrate();
+    }
+
+    /**
+     * @return number of homestays whose calendar was filled from the old table
+     */
+    public int migrate() {
+        if (!legacyTableExists()) {
+            return 0;
+        }
+        CalendarWriter writer = new CalendarWriter();
+        jdbcTemplate.query("SELECT d.homestay_id, d.available_date FROM " + LEGACY_TABLE + " d"
+                + " JOIN homestays h ON h.id = d.homestay_id WHERE h.availability IS NULL ORDER BY d.homestay_id", writer);
+        writer.finish();
+        if (writer.migrated > 0) {
+            System.out.println("Migrated availability of " + writer.migrated + " homestays from " + LEGACY_TABLE
+                    + "; the table is no longer used and can be dropped.");
+        }
+        return writer.migrated;
+    }
+
+    private boolean legacyTableExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Folds rows ordered by homestay into one calendar per homestay and writes them in batches.
+     */
+    private final class CalendarWriter implements RowCallbackHandler {
+
+        private final List<Object[]> updates = new ArrayList<>(BATCH_SIZE);
+        private long homestayId = -1;
+        private AvailabilityCalendar calendar;
+        int migrated;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != homestayId) {
+                endHomestay();
+                homestayId = id;
+                calendar = new AvailabilityCalendar();
+            }
+            calendar.add(rs.getDate(2).toLocalDate());
+        }
+
+        void finish() {
+            endHomestay();
+            flush();
+        }
+
+        private void endHomestay() {
+            if (calendar != null) {
+                updates.add(new Object[]{calendar.toBytes(), homestayId});
+                if (updates.size() >= BATCH_SIZE) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE homestays SET availability = ? WHERE id = ?", updates);
+                migrated += updates.size();
+                updates.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.stayfinder.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables Spring's cache abstraction. Caches are Caffeine-backed and sized through
+ * {@code spring.cache.caffeine.spec}; their hit and miss counts are published as
+ * {@code cache.gets} metrics on {@code /actuator/metrics}.
+ *
+ * The {@value #USERS} cache has its own size and TTL ({@code users.cache.*}): accounts are
+ * evicted when they change through {@code UserService}, and the TTL bounds how long a change made
+ * elsewhere (another instance, a manual update) can go unnoticed.
+ *
+ * The {@value #FRAGMENTS} cache holds rendered template fragments (see {@code ViewConfig}). They
+ * only change with a deployment, so entries never expire.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String HOMESTAY_DETAILS = "homestayDetails";
+    public static final String USERS = "users";
+    public static final String FRAGMENTS = "fragments";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(
+            @Value("${users.cache.max-entries:10000}") long maxEntries,
+            @Value("${users.cache.ttl:5m}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> fragmentCacheCustomizer(
+            @Value("${views.fragment-cache.max-entries:1000}") long maxEntries) {
+        return cacheManager -> cacheManager.registerCustomCache(FRAGMENTS, Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build());
+    }
+}
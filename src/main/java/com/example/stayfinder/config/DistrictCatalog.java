@@ -0,0 +1,47 @@
+package com.example.stayfinder.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Andhra Pradesh districts loaded once from {@code data/andhra_districts.json}.
+ *
+ * The list is immutable after startup. It feeds the search form's district list and the
+ * location suggestions ({@code LocationSuggestService}), which do the prefix matching.
+ */
+@Component
+public class DistrictCatalog {
+
+    private static final String RESOURCE = "/data/andhra_districts.json";
+
+    private final List<String> districts;
+
+    public DistrictCatalog(ObjectMapper objectMapper) {
+        this.districts = load(objectMapper);
+    }
+
+    public List<String> getDistricts() {
+        return districts;
+    }
+
+    public int size() {
+        return districts.size();
+    }
+
+    private static List<String> load(ObjectMapper objectMapper) {
+        try (InputStream is = DistrictCatalog.class.getResourceAsStream(RESOURCE)) {
+            if (is == null) {
+                System.out.println("andhra_districts.json not found on classpath");
+                return List.of();
+            }
+            return List.copyOf(objectMapper.readValue(is, new TypeReference<List<String>>() {}));
+        } catch (Exception e) {
+            System.err.println("Failed to load districts: " + e.getMessage());
+            return List.of();
+        }
+    }
+}
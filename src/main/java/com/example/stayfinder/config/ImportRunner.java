@@ -0,0 +1,36 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.service.HomestayImportService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Path;
+
+/**
+ * Imports a homestay feed given on the command line, e.g.
+ * {@code ./mvnw spring-boot:run -Dspring-boot.run.arguments=--import=/data/partner-feed.json}.
+ */
+@Configuration
+public class ImportRunner {
+
+    private static final String IMPORT_ARG = "--import=";
+
+    @Bean
+    public CommandLineRunner importHomestays(@Lazy HomestayImportService importService) {
+        return args -> {
+            for (String arg : args) {
+                if (!arg.startsWith(IMPORT_ARG)) {
+                    continue;
+                }
+                Path path = Path.of(arg.substring(IMPORT_ARG.length()));
+                try {
+                    importService.importFile(path);
+                } catch (Exception e) {
+                    System.err.println("Import of " + path + " failed: " + e.getMessage());
+                }
+            }
+        };
+    }
+}
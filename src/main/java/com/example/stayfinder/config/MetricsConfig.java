@@ -0,0 +1,45 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.metrics.JdbcRowCounter;
+import com.example.stayfinder.metrics.RowsPerRequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Hot-path metrics not covered by Spring Boot's own instrumentation. Alongside the
+ * {@code http.server.requests}, {@code cache.gets} and {@code hikaricp.*} metrics Boot publishes,
+ * the application records:
+ * <ul>
+ *   <li>{@code search.requests}: search latency by kind (location, page, text, nearby, within)</li>
+ *   <li>{@code bookings.conflict.check}: time spent deciding whether a stay overlaps another</li>
+ *   <li>{@code password.encoder}: password hashing and verification time</li>
+ *   <li>{@code jdbc.statements} and {@code jdbc.statements.slow}, see {@code SlowQueryLog}</li>
+ *   <li>{@code jdbc.rows.per.request}: rows read from the database per request</li>
+ * </ul>
+ * All of them are exposed on {@code /actuator/metrics} and, in Prometheus format, on
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private JdbcRowCounter jdbcRowCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.jdbc.count-rows:true}")
+    private boolean countRows;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (countRows) {
+            registry.addInterceptor(new RowsPerRequestInterceptor(jdbcRowCounter, meterRegistry))
+                    .excludePathPatterns("/images/**");
+        }
+    }
+}
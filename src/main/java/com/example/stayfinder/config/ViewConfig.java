@@ -0,0 +1,26 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.view.FragmentCacheDialect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.ITemplateEngine;
+
+/**
+ * Thymeleaf additions on top of Boot's setup: the {@code sf:cache} fragment output cache
+ * ({@link FragmentCacheDialect}), used for the anonymous navbar, the district list and the demo
+ * bookings. It follows {@code spring.thymeleaf.cache} unless {@code views.fragment-cache.enabled} is
+ * set, so template edits show up on reload in development and the prod profile caches both.
+ */
+@Configuration
+public class ViewConfig {
+
+    @Bean
+    public FragmentCacheDialect fragmentCacheDialect(ObjectProvider<ITemplateEngine> templateEngine,
+                                                     CacheManager cacheManager,
+                                                     @Value("${views.fragment-cache.enabled:${spring.thymeleaf.cache:true}}") boolean enabled) {
+        return new FragmentCacheDialect(templateEngine::getObject, cacheManager.getCache(CacheConfig.FRAGMENTS), enabled);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.stayfinder.controller;
+
+import com.example.stayfinder.dto.ImportReport;
+import com.example.stayfinder.service.HomestayImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Admin-only, so created on the first import request rather than at startup
+@RestController
+@Lazy
+public class AdminImportController {
+
+    @Autowired
+    private HomestayImportService importService;
+
+    /**
+     * Bulk import of a JSON or CSV homestay feed uploaded as the multipart field {@code file}.
+     */
+    @PostMapping("/admin/import")
+    public ResponseEntity<?> importHomestays(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = importService.importStream(in, file.getOriginalFilename());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
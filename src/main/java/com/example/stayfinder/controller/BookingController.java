@@ -1,20 +1,26 @@
 package com.example.stayfinder.controller;
 
+import com.example.stayfinder.dto.BookingView;
+import com.example.stayfinder.dto.UserAccount;
 import com.example.stayfinder.model.Booking;
 import com.example.stayfinder.model.Homestay;
 import com.example.stayfinder.model.User;
+import com.example.stayfinder.service.BookingPipeline;
 import com.example.stayfinder.service.BookingService;
 import com.example.stayfinder.service.HomestayService;
 import com.example.stayfinder.service.UserService;
+import com.example.stayfinder.view.StreamingViews;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.View;
 import jakarta.validation.Valid;
 
-import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Controller
 public class BookingController {
@@ -22,12 +28,18 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingPipeline bookingPipeline;
+
     @Autowired
     private HomestayService homestayService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private StreamingViews streamingViews;
+
     @GetMapping("/book/{homestayId}")
     public String showBookingForm(@PathVariable Long homestayId, Model model, Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -39,32 +51,61 @@ public class BookingController {
         }
         Booking booking = new Booking();
         booking.setHomestay(homestay);
-        String email = authentication.getName();
-        User user = userService.findByEmail(email);
-        booking.setUser(user);
         model.addAttribute("booking", booking);
         model.addAttribute("homestay", homestay);
+        // One key per rendered form: resubmitting it (double click, retry) replays the first result
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         return "book";
     }
 
+    /**
+     * Queue the booking and send the guest to its status page; availability checks and payment
+     * happen in the {@link BookingPipeline}. The idempotency key comes from the form's hidden field
+     * or, for API clients, the {@code Idempotency-Key} header. The booking is always made for the
+     * signed-in user; a posted {@code user.id} is ignored.
+     */
     @PostMapping("/book")
-    public String createBooking(@Valid @ModelAttribute Booking booking, BindingResult bindingResult, Model model) {
+    public String createBooking(@Valid @ModelAttribute Booking booking, BindingResult bindingResult, Model model,
+                                @RequestParam(required = false) String idempotencyKey,
+                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKeyHeader,
+                                Authentication authentication) {
+        String key = idempotencyKeyHeader != null ? idempotencyKeyHeader : idempotencyKey;
+        model.addAttribute("idempotencyKey", key);
         if (bindingResult.hasErrors()) {
             Homestay homestay = homestayService.findById(booking.getHomestay().getId());
             model.addAttribute("homestay", homestay);
             return "book";
         }
+        UserAccount account = userService.findAccount(authentication.getName());
+        booking.setUser(account != null ? account.reference() : null);
         try {
-            bookingService.createBooking(booking);
-            return "redirect:/search?success=booked";
+            BookingPipeline.Ticket ticket = bookingPipeline.submit(booking, authentication.getName(), key);
+            return "redirect:/book/status/" + ticket.getId();
         } catch (RuntimeException e) {
             model.addAttribute("error", e.getMessage());
+            // A corrected form is a new submission
+            model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
             Homestay homestay = homestayService.findById(booking.getHomestay().getId());
             model.addAttribute("homestay", homestay);
             return "book";
         }
     }
 
+    /**
+     * Where a queued booking stands. The page reloads itself until the booking is confirmed,
+     * rejected or cancelled.
+     */
+    @GetMapping("/book/status/{ticketId}")
+    public String showBookingStatus(@PathVariable String ticketId, Model model, Authentication authentication) {
+        BookingPipeline.Ticket ticket = bookingPipeline.find(ticketId);
+        if (ticket == null || !ticket.getOwner().equals(authentication.getName())) {
+            return "redirect:/bookings";
+        }
+        model.addAttribute("ticket", ticket);
+        model.addAttribute("homestay", homestayService.findDetailsById(ticket.getHomestayId()));
+        return "booking-status";
+    }
+
     /**
      * Quick demo booking endpoint: creates a confirmed booking for the demo user without payment.
      * Redirects to /bookings so the new booking appears in My Bookings.
@@ -97,32 +138,32 @@ public class BookingController {
         }
     }
 
+    /**
+     * My Bookings, rendered while the bookings are read (see {@link StreamingViews}) since a
+     * user's booking history has no upper bound.
+     */
     @GetMapping("/bookings")
-    public String listUserBookings(Authentication authentication, @RequestParam(required = false) String success, Model model) {
-        User user = null;
+    public View listUserBookings(Authentication authentication, @RequestParam(required = false) String success, Model model) {
+        UserAccount account = null;
         boolean demoMode = false;
 
         if (authentication != null && authentication.isAuthenticated()) {
-            user = userService.findByEmail(authentication.getName());
+            account = userService.findAccount(authentication.getName());
         }
 
         // If no authenticated user, fall back to demo user so the page shows demo bookings
-        if (user == null) {
-            user = userService.findByEmail("demo.user@example.com");
+        if (account == null) {
+            account = userService.findAccount("demo.user@example.com");
             demoMode = true;
         }
 
-        if (user == null) {
-            model.addAttribute("bookings", List.of());
-            model.addAttribute("demoMode", demoMode);
-            model.addAttribute("success", success);
-            return "bookings";
-        }
-
-        List<Booking> bookings = bookingService.getBookingsByUser(user);
-        model.addAttribute("bookings", bookings);
         model.addAttribute("demoMode", demoMode);
         model.addAttribute("success", success);
-        return "bookings";
+        if (account == null) {
+            return streamingViews.rows("bookings", "bookings", Stream::<BookingView>empty);
+        }
+
+        User owner = account.reference();
+        return streamingViews.rows("bookings", "bookings", () -> bookingService.streamBookingsByUser(owner));
     }
-}
\ No newline at end of file
+}
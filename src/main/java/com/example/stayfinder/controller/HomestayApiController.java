@@ -0,0 +1,128 @@
+package com.example.stayfinder.controller;
+
+import com.example.stayfinder.dto.HomestaySummary;
+import com.example.stayfinder.dto.NearbyHomestay;
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.dto.SearchPage;
+import com.example.stayfinder.index.GeoIndex;
+import com.example.stayfinder.service.HomestayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+public class HomestayApiController {
+
+    // Short enough that a cached page rarely offers a stay that was just booked; booking re-checks anyway
+    private static final CacheControl SEARCH_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    @Autowired
+    private HomestayService homestayService;
+
+    /**
+     * Read-only search for API clients, e.g.
+     * {@code /api/homestays/search?location=vizag&checkIn=2025-10-01&checkOut=2025-10-03&maxPrice=2000&guests=4&sort=PRICE_DESC}.
+     *
+     * Responses carry an ETag that changes whenever homestays or bookings change. A request whose
+     * {@code If-None-Match} still matches is answered with 304 without running the search.
+     */
+    @GetMapping("/api/homestays/search")
+    public ResponseEntity<SearchPage<HomestaySummary>> search(@RequestParam(defaultValue = "") String location,
+                                                              @RequestParam LocalDate checkIn,
+                                                              @RequestParam LocalDate checkOut,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) String before,
+                                                              @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int size,
+                                                              @RequestParam(required = false) Double minPrice,
+                                                              @RequestParam(required = false) Double maxPrice,
+                                                              @RequestParam(required = false) Integer guests,
+                                                              @RequestParam(defaultValue = "PRICE_ASC") SearchFilter.Sort sort,
+                                                              WebRequest request) {
+        String etag = "\"" + homestayService.searchVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).build();
+        }
+        SearchFilter filter = new SearchFilter(minPrice, maxPrice, guests, sort);
+        SearchPage<HomestaySummary> page = homestayService.searchPage(location, checkIn, checkOut, after, before, size, filter)
+                .map(HomestaySummary::of);
+        return ResponseEntity.ok().eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).body(page);
+    }
+
+    /**
+     * Ranked full-text search over locations and descriptions, e.g.
+     * {@code /api/homestays/text-search?q=vizag+beach&checkIn=2025-10-01&checkOut=2025-10-03}.
+     * Cached the same way as {@link #search}.
+     */
+    @GetMapping("/api/homestays/text-search")
+    public ResponseEntity<List<HomestaySummary>> textSearch(@RequestParam String q,
+                                                            @RequestParam LocalDate checkIn,
+                                                            @RequestParam LocalDate checkOut,
+                                                            @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int limit,
+                                                            WebRequest request) {
+        String etag = "\"" + homestayService.searchVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).build();
+        }
+        List<HomestaySummary> homestays = homestayService.searchText(q, checkIn, checkOut, limit).stream()
+                .map(HomestaySummary::of)
+                .toList();
+        return ResponseEntity.ok().eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).body(homestays);
+    }
+
+    /**
+     * Homestays within {@code radiusKm} of a point, nearest first, e.g.
+     * {@code /api/homestays/nearby?lat=13.68&lng=79.35&radiusKm=20&checkIn=2025-10-15&checkOut=2025-10-16}.
+     */
+    @GetMapping("/api/homestays/nearby")
+    public ResponseEntity<List<NearbyHomestay>> nearby(@RequestParam double lat,
+                                                       @RequestParam double lng,
+                                                       @RequestParam(defaultValue = "20") double radiusKm,
+                                                       @RequestParam LocalDate checkIn,
+                                                       @RequestParam LocalDate checkOut,
+                                                       @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int limit,
+                                                       WebRequest request) {
+        String etag = "\"" + homestayService.searchVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).build();
+        }
+        List<NearbyHomestay> homestays = homestayService.findNearby(lat, lng, radiusKm, checkIn, checkOut, limit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).body(homestays);
+    }
+
+    /**
+     * Homestays inside a map viewport, nearest to its centre first, e.g.
+     * {@code /api/homestays/within?south=16.4&west=80.5&north=16.6&east=80.8&checkIn=...&checkOut=...}.
+     */
+    @GetMapping("/api/homestays/within")
+    public ResponseEntity<List<NearbyHomestay>> within(@RequestParam double south,
+                                                       @RequestParam double west,
+                                                       @RequestParam double north,
+                                                       @RequestParam double east,
+                                                       @RequestParam LocalDate checkIn,
+                                                       @RequestParam LocalDate checkOut,
+                                                       @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int limit,
+                                                       WebRequest request) {
+        GeoIndex.Box box = new GeoIndex.Box(south, west, north, east);
+        String etag = "\"" + homestayService.searchVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).build();
+        }
+        List<NearbyHomestay> homestays = homestayService.findWithin(box, checkIn, checkOut, limit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(SEARCH_CACHE_CONTROL).body(homestays);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.stayfinder.controller;
 
+import com.example.stayfinder.config.DistrictCatalog;
+import com.example.stayfinder.dto.HomestayDetails;
+import com.example.stayfinder.dto.HomestaySummary;
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.dto.SearchPage;
 import com.example.stayfinder.model.Homestay;
 import com.example.stayfinder.service.HomestayService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +22,9 @@ public class HomestayController {
     @Autowired
     private HomestayService homestayService;
 
+    @Autowired
+    private DistrictCatalog districtCatalog;
+
     @GetMapping("/")
     public String home() {
         return "redirect:/search";
@@ -22,16 +32,7 @@ public class HomestayController {
 
     @GetMapping("/search")
     public String showSearchForm(org.springframework.ui.Model model) {
-        // Load Andhra Pradesh districts from classpath JSON and expose to the template as 'districts'
-        try (java.io.InputStream is = getClass().getResourceAsStream("/data/andhra_districts.json")) {
-            if (is != null) {
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                java.util.List<String> districts = mapper.readValue(is, new com.fasterxml.jackson.core.type.TypeReference<java.util.List<String>>() {});
-                model.addAttribute("districts", districts);
-            }
-        } catch (Exception e) {
-            System.err.println("Could not load districts: " + e.getMessage());
-        }
+        model.addAttribute("districts", districtCatalog.getDistricts());
         return "search";
     }
 
@@ -39,11 +40,27 @@ public class HomestayController {
     public String searchHomestays(@RequestParam String location,
                                   @RequestParam LocalDate checkIn,
                                   @RequestParam LocalDate checkOut,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(required = false) String before,
+                                  @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int size,
+                                  @RequestParam(required = false) Double minPrice,
+                                  @RequestParam(required = false) Double maxPrice,
+                                  @RequestParam(required = false) Integer guests,
+                                  @RequestParam(defaultValue = "PRICE_ASC") SearchFilter.Sort sort,
                                   Model model) {
-        List<Homestay> homestays = homestayService.findAvailableByLocationAndDates(location, checkIn, checkOut);
+        SearchFilter filter = new SearchFilter(minPrice, maxPrice, guests, sort);
+        SearchPage<Homestay> page = homestayService.searchPage(location, checkIn, checkOut, after, before, size, filter);
+        List<Homestay> homestays = page.items();
+
+        // Nothing contains the typed text; the full-text index also knows spelling variants and descriptions.
+        // Its matches are ranked by relevance, not (price, id), so they are shown as a single page.
+        if (homestays.isEmpty() && after == null && before == null) {
+            homestays = homestayService.searchText(location, checkIn, checkOut, page.size(), filter);
+            page = new SearchPage<>(homestays, null, null, page.size());
+        }
 
-        // If no results, provide a small sample homestay so the UI shows default data
-        if (homestays == null || homestays.isEmpty()) {
+        // If the search has no results at all, provide a small sample homestay so the UI shows default data
+        if (homestays.isEmpty() && after == null && before == null) {
             com.example.stayfinder.model.User sampleHost = new com.example.stayfinder.model.User("sample@example.com", "", "Sample Host", com.example.stayfinder.model.User.Role.HOST);
             Homestay sample = new Homestay(
                     sampleHost,
@@ -56,15 +73,42 @@ public class HomestayController {
         }
 
         model.addAttribute("homestays", homestays);
+        model.addAttribute("page", page);
+        model.addAttribute("filter", filter);
         model.addAttribute("location", location);
         model.addAttribute("checkIn", checkIn);
         model.addAttribute("checkOut", checkOut);
         return "search-results";
     }
 
+    /**
+     * JSON variant of the search for clients sending {@code Accept: application/json}.
+     */
+    @PostMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public SearchPage<HomestaySummary> searchHomestaysJson(@RequestParam String location,
+                                                           @RequestParam LocalDate checkIn,
+                                                           @RequestParam LocalDate checkOut,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) String before,
+                                                           @RequestParam(defaultValue = "" + HomestayService.DEFAULT_PAGE_SIZE) int size,
+                                                           @RequestParam(required = false) Double minPrice,
+                                                           @RequestParam(required = false) Double maxPrice,
+                                                           @RequestParam(required = false) Integer guests,
+                                                           @RequestParam(defaultValue = "PRICE_ASC") SearchFilter.Sort sort) {
+        SearchFilter filter = new SearchFilter(minPrice, maxPrice, guests, sort);
+        return homestayService.searchPage(location, checkIn, checkOut, after, before, size, filter).map(HomestaySummary::of);
+    }
+
+    // Malformed page tokens (after/before) and other rejected search parameters
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
     @GetMapping("/homestays/{id}")
     public String viewHomestay(@PathVariable Long id, Model model) {
-        Homestay homestay = homestayService.findById(id);
+        HomestayDetails homestay = homestayService.findDetailsById(id);
         if (homestay == null) {
             return "redirect:/search";
         }
@@ -0,0 +1,26 @@
+package com.example.stayfinder.controller;
+
+import com.example.stayfinder.index.LocationTrie;
+import com.example.stayfinder.service.LocationSuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class LocationSuggestController {
+
+    @Autowired
+    private LocationSuggestService locationSuggestService;
+
+    /**
+     * Ranked location suggestions for the search box, e.g. {@code /api/locations/suggest?q=vi}.
+     */
+    @GetMapping("/api/locations/suggest")
+    public List<LocationTrie.Suggestion> suggest(@RequestParam(defaultValue = "") String q,
+                                                 @RequestParam(defaultValue = "8") int limit) {
+        return locationSuggestService.suggest(q, limit);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Read model for the My Bookings page: a booking with a summary of its homestay, loaded in one
+ * query instead of initializing the lazy {@code Booking.homestay} association per row.
+ */
+public record BookingView(Long id, LocalDate checkInDate, LocalDate checkOutDate, Booking.Status status,
+                          HomestaySummary homestay) {
+
+    // Used by the JPQL constructor expression in BookingRepository
+    public BookingView(Long id, LocalDate checkInDate, LocalDate checkOutDate, Booking.Status status,
+                       Long homestayId, String location, String description, Double price, Integer capacity) {
+        this(id, checkInDate, checkOutDate, status, new HomestaySummary(homestayId, location, description, price, capacity));
+    }
+}
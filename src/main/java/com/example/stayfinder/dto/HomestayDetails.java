@@ -0,0 +1,21 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Homestay;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The fields of a homestay shown on its detail page. Fully loaded and immutable, so it can be
+ * cached and shared between requests.
+ */
+public record HomestayDetails(Long id, String location, String description, Double price, Integer capacity,
+                              String hostName, List<LocalDate> availableDates) {
+
+    public static HomestayDetails of(Homestay homestay) {
+        return new HomestayDetails(homestay.getId(), homestay.getLocation(), homestay.getDescription(), homestay.getPrice(),
+                homestay.getCapacity(),
+                homestay.getHost() != null ? homestay.getHost().getName() : null,
+                homestay.getAvailableDates());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Homestay;
+
+/**
+ * The fields of a homestay shown in search results, without its lazy associations.
+ */
+public record HomestaySummary(Long id, String location, String description, Double price, Integer capacity) {
+
+    public static HomestaySummary of(Homestay homestay) {
+        return new HomestaySummary(homestay.getId(), homestay.getLocation(), homestay.getDescription(), homestay.getPrice(),
+                homestay.getCapacity());
+    }
+}
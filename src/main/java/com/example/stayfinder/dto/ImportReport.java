@@ -0,0 +1,22 @@
+package com.example.stayfinder.dto;
+
+/**
+ * Outcome of a bulk homestay import.
+ *
+ * @param imported     homestays written
+ * @param skipped      rows rejected for missing location, description or price
+ * @param hostsCreated hosts that did not exist yet and were registered
+ * @param elapsedMillis wall time spent parsing and writing
+ */
+public record ImportReport(long imported, long skipped, int hostsCreated, long elapsedMillis) {
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d homestays (%d skipped, %d new hosts) in %d ms, %.0f rows/sec",
+                imported, skipped, hostsCreated, elapsedMillis, rowsPerSecond());
+    }
+}
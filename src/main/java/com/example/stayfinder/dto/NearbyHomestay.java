@@ -0,0 +1,16 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Homestay;
+
+/**
+ * A geo search result: the homestay's summary fields, its position and how far it is from the
+ * searched point (or the centre of the searched box).
+ */
+public record NearbyHomestay(Long id, String location, String description, Double price,
+                             Double latitude, Double longitude, double distanceKm) {
+
+    public static NearbyHomestay of(Homestay homestay, double distanceKm) {
+        return new NearbyHomestay(homestay.getId(), homestay.getLocation(), homestay.getDescription(), homestay.getPrice(),
+                homestay.getLatitude(), homestay.getLongitude(), distanceKm);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Homestay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in search results ordered by (price, id), exchanged with clients as an
+ * opaque URL-safe token.
+ */
+public record SearchCursor(double price, long id) {
+
+    public static SearchCursor of(Homestay homestay) {
+        return new SearchCursor(homestay.getPrice(), homestay.getId());
+    }
+
+    public String encode() {
+        String raw = price + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}; returns null for a blank token.
+     *
+     * @throws IllegalArgumentException when the token is malformed, e.g. truncated or edited
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new SearchCursor(Double.parseDouble(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search page token", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.Homestay;
+
+/**
+ * Narrows a location search: a price range per night (either end may be null for unbounded), a
+ * number of guests the homestay must sleep (null for any) and the direction of the price order.
+ */
+public record SearchFilter(Double minPrice, Double maxPrice, Integer guests, Sort sort) {
+
+    public static final SearchFilter NONE = new SearchFilter(null, null, null, Sort.PRICE_ASC);
+
+    public enum Sort { PRICE_ASC, PRICE_DESC }
+
+    public SearchFilter {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            Double swap = minPrice;
+            minPrice = maxPrice;
+            maxPrice = swap;
+        }
+        if (guests != null && guests < 1) {
+            guests = null;
+        }
+        if (sort == null) {
+            sort = Sort.PRICE_ASC;
+        }
+    }
+
+    public double lowestPrice() {
+        return minPrice != null ? minPrice : -Double.MAX_VALUE;
+    }
+
+    public double highestPrice() {
+        return maxPrice != null ? maxPrice : Double.MAX_VALUE;
+    }
+
+    public int minCapacity() {
+        return guests != null ? guests : 0;
+    }
+
+    public boolean descending() {
+        return sort == Sort.PRICE_DESC;
+    }
+
+    public boolean accepts(double price, int capacity) {
+        return price >= lowestPrice() && price <= highestPrice() && capacity >= minCapacity();
+    }
+
+    public boolean accepts(Homestay homestay) {
+        return accepts(homestay.getPrice() != null ? homestay.getPrice() : 0.0,
+                homestay.getCapacity() != null ? homestay.getCapacity() : Homestay.DEFAULT_CAPACITY);
+    }
+}
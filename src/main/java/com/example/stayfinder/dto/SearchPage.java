@@ -0,0 +1,15 @@
+package com.example.stayfinder.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of search results with the tokens needed to fetch its neighbours.
+ * {@code next} and {@code prev} are null when there is no page in that direction.
+ */
+public record SearchPage<T>(List<T> items, String next, String prev, int size) {
+
+    public <R> SearchPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new SearchPage<>(items.stream().<R>map(mapper).toList(), next, prev, size);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.stayfinder.dto;
+
+import com.example.stayfinder.model.User;
+
+/**
+ * What login and booking requests need of an account, without its lazy associations. Immutable,
+ * so it can be cached and shared between requests.
+ */
+public record UserAccount(Long id, String email, String passwordHash, User.Role role) {
+
+    public static UserAccount of(User user) {
+        return new UserAccount(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    /**
+     * A new, id-only {@link User} for rows that refer to this account, e.g. a booking's user.
+     */
+    public User reference() {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
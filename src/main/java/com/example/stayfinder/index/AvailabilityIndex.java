@@ -0,0 +1,450 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.dto.SearchCursor;
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.model.AvailabilityCalendar;
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.BookingRepository;
+import com.example.stayfinder.repository.HomestayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory availability index used by homestay search.
+ *
+ * Homestays are grouped by their normalized location and each one carries its calendar of
+ * available nights plus a calendar of nights already taken by bookings. A search scans the
+ * (small) set of distinct locations for a substring match, mirroring the {@code LIKE %:location%}
+ * semantics of the database search, and then answers the date check from the calendars without
+ * touching the database.
+ *
+ * Within a location homestays are kept sorted by (price, id), so a page of results can be read
+ * by seeking to a {@link SearchCursor} and merging the matching locations in order, touching
+ * little more than the rows that end up on the page. A price range of a {@link SearchFilter}
+ * narrows the same seek; the guest count is checked on the entries visited.
+ *
+ * The index is rebuilt from the database once the application is ready and kept current by
+ * {@link #put(Homestay)}, {@link #book(Long, LocalDate, LocalDate)} and
+ * {@link #release(Long, LocalDate, LocalDate)}. Until the first rebuild
+ * completes {@link #isReady()} is false and callers should fall back to the JPA query.
+ *
+ * A rebuild reads the database without holding the lock, so searches keep being answered from the
+ * old maps meanwhile. Changes made during the read are applied to the old maps and kept, then
+ * replayed onto the new ones when they are swapped in.
+ */
+@Component
+public class AvailabilityIndex {
+
+    @Autowired
+    private HomestayRepository homestayRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One rebuild at a time. Not synchronized: a rebuild reads the database, which would pin the
+    // carrier of a virtual thread (e.g. a request running an import) for the whole read
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private static final Comparator<Entry> PRICE_ORDER = Comparator.comparingDouble((Entry e) -> e.price)
+            .thenComparingLong(e -> e.homestay.getId());
+
+    // normalized location -> entries ordered by (price, id)
+    private Map<String, NavigableSet<Entry>> byLocation = new HashMap<>();
+    private Map<Long, Entry> byId = new HashMap<>();
+
+    // Changes made while a rebuild reads the database, replayed onto its result; null otherwise.
+    // Guarded by the write lock
+    private List<Runnable> changedDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    // Bumped on every change that can alter search results
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            trackChanges(true);
+            try {
+                Map<String, NavigableSet<Entry>> freshByLocation = new HashMap<>();
+                Map<Long, Entry> freshById = new HashMap<>();
+                for (Homestay homestay : homestayRepository.findAll()) {
+                    index(freshByLocation, freshById, homestay, new AvailabilityCalendar());
+                }
+                for (Booking booking : bookingRepository.findByStatusNot(Booking.Status.CANCELLED)) {
+                    Entry entry = freshById.get(booking.getHomestay().getId());
+                    if (entry != null) {
+                        entry.booked.addRange(booking.getCheckInDate(), booking.getCheckOutDate());
+                    }
+                }
+                lock.writeLock().lock();
+                try {
+                    byLocation = freshByLocation;
+                    byId = freshById;
+                    for (Runnable change : changedDuringRebuild) {
+                        change.run();
+                    }
+                    ready = true;
+                    version.incrementAndGet();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                trackChanges(false);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void trackChanges(boolean on) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = on ? new ArrayList<>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void record(Runnable change) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(change);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add or replace a homestay.
+     *
+     * @return the normalized location the homestay was indexed under before, or null if it is new
+     */
+    public String put(Homestay homestay) {
+        if (homestay == null || homestay.getId() == null) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry previous = replace(homestay);
+            record(() -> replace(homestay));
+            version.incrementAndGet();
+            return previous != null ? previous.locationKey : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mark the nights {@code [checkIn, checkOut)} of a homestay as taken.
+     */
+    public void book(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        lock.writeLock().lock();
+        try {
+            addBooked(homestayId, checkIn, checkOut);
+            record(() -> addBooked(homestayId, checkIn, checkOut));
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Give the nights {@code [checkIn, checkOut)} of a cancelled booking back to a homestay.
+     */
+    public void release(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        lock.writeLock().lock();
+        try {
+            removeBooked(homestayId, checkIn, checkOut);
+            record(() -> removeBooked(homestayId, checkIn, checkOut));
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A counter that changes whenever a homestay or booking is indexed, so callers can tell
+     * whether a search they answered earlier may have a different result now.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Normalized location a homestay is indexed under, or null if it is not indexed.
+     */
+    public String locationOf(Long homestayId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byId.get(homestayId);
+            return entry != null ? entry.locationKey : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of the available nights a homestay is indexed with, or null if it is not indexed.
+     */
+    public AvailabilityCalendar availabilityOf(Long homestayId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byId.get(homestayId);
+            return entry != null ? entry.available.copy() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True when the homestay is indexed and has at least one free night in {@code [checkIn, checkOut)}.
+     */
+    public boolean isAvailable(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        return isAvailable(homestayId, checkIn, checkOut, SearchFilter.NONE);
+    }
+
+    /**
+     * As {@link #isAvailable(Long, LocalDate, LocalDate)}, for homestays the filter accepts.
+     */
+    public boolean isAvailable(Long homestayId, LocalDate checkIn, LocalDate checkOut, SearchFilter filter) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byId.get(homestayId);
+            return entry != null && filter.accepts(entry.price, entry.capacity)
+                    && entry.available.containsAny(checkIn, checkOut, entry.booked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The indexed homestays with the given ids, in the same order; unknown ids are skipped.
+     */
+    public List<Homestay> findByIds(List<Long> homestayIds) {
+        List<Homestay> result = new ArrayList<>(homestayIds.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : homestayIds) {
+                Entry entry = byId.get(id);
+                if (entry != null) {
+                    result.add(entry.homestay);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Homestays whose location contains {@code location} (case-insensitive) and that have at least
+     * one free night in {@code [checkIn, checkOut)}, ordered by id.
+     */
+    public List<Homestay> findAvailable(String location, LocalDate checkIn, LocalDate checkOut) {
+        String needle = normalize(location);
+        List<Homestay> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, NavigableSet<Entry>> group : byLocation.entrySet()) {
+                if (!group.getKey().contains(needle)) {
+                    continue;
+                }
+                for (Entry entry : group.getValue()) {
+                    if (entry.available.containsAny(checkIn, checkOut, entry.booked)) {
+                        result.add(entry.homestay);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(Homestay::getId));
+        return result;
+    }
+
+    /**
+     * One page of {@link #findAvailable} results in (price, id) order.
+     *
+     * @param cursor   position to seek from (exclusive), or null to start at the cheapest homestay
+     * @param forward  true to read ascending from the cursor, false to read descending before it
+     * @param limit    maximum number of homestays to return
+     * @return homestays in the order read: ascending when forward, descending otherwise
+     */
+    public List<Homestay> findAvailablePage(String location, LocalDate checkIn, LocalDate checkOut,
+                                            SearchCursor cursor, boolean forward, int limit) {
+        return findAvailablePage(location, checkIn, checkOut, cursor, forward, limit, SearchFilter.NONE);
+    }
+
+    /**
+     * As {@link #findAvailablePage(String, LocalDate, LocalDate, SearchCursor, boolean, int)}, keeping
+     * only homestays the filter accepts. A null cursor starts at the cheapest homestay when reading
+     * forward and at the most expensive one otherwise; the filter's sort is left to the caller.
+     */
+    public List<Homestay> findAvailablePage(String location, LocalDate checkIn, LocalDate checkOut,
+                                            SearchCursor cursor, boolean forward, int limit, SearchFilter filter) {
+        String needle = normalize(location);
+        List<Homestay> result = new ArrayList<>(limit);
+        Comparator<Entry> order = forward ? PRICE_ORDER : PRICE_ORDER.reversed();
+
+        // The price range and the cursor both bound the (price, id) range to read
+        Entry low = Entry.probe(filter.lowestPrice(), Long.MIN_VALUE);
+        Entry high = Entry.probe(filter.highestPrice(), Long.MAX_VALUE);
+        boolean lowInclusive = true;
+        boolean highInclusive = true;
+        if (cursor != null) {
+            Entry at = Entry.probe(cursor.price(), cursor.id());
+            if (forward && PRICE_ORDER.compare(at, low) >= 0) {
+                low = at;
+                lowInclusive = false;
+            } else if (!forward && PRICE_ORDER.compare(at, high) <= 0) {
+                high = at;
+                highInclusive = false;
+            }
+        }
+        if (PRICE_ORDER.compare(low, high) > 0) {
+            return result;
+        }
+        int minCapacity = filter.minCapacity();
+        lock.readLock().lock();
+        try {
+            // k-way merge of the matching locations, each already sorted by (price, id)
+            PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> order.compare(a.entry, b.entry));
+            for (Map.Entry<String, NavigableSet<Entry>> group : byLocation.entrySet()) {
+                if (!group.getKey().contains(needle)) {
+                    continue;
+                }
+                NavigableSet<Entry> entries = group.getValue().subSet(low, lowInclusive, high, highInclusive);
+                Iterator<Entry> it = forward ? entries.iterator() : entries.descendingIterator();
+                if (it.hasNext()) {
+                    heads.add(new Head(it.next(), it));
+                }
+            }
+            while (!heads.isEmpty() && result.size() < limit) {
+                Head head = heads.poll();
+                Entry entry = head.entry;
+                if (entry.capacity >= minCapacity && entry.available.containsAny(checkIn, checkOut, entry.booked)) {
+                    result.add(entry.homestay);
+                }
+                if (head.rest.hasNext()) {
+                    heads.add(new Head(head.rest.next(), head.rest));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Callers must hold the write lock
+    private Entry replace(Homestay homestay) {
+        Entry previous = remove(homestay.getId());
+        index(byLocation, byId, homestay, previous != null ? previous.booked : new AvailabilityCalendar());
+        return previous;
+    }
+
+    // Callers must hold the write lock
+    private void addBooked(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        Entry entry = byId.get(homestayId);
+        if (entry != null) {
+            entry.booked.addRange(checkIn, checkOut);
+        }
+    }
+
+    // Callers must hold the write lock
+    private void removeBooked(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        Entry entry = byId.get(homestayId);
+        if (entry != null) {
+            for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                entry.booked.remove(night);
+            }
+        }
+    }
+
+    private static void index(Map<String, NavigableSet<Entry>> byLocation, Map<Long, Entry> byId,
+                              Homestay homestay, AvailabilityCalendar booked) {
+        // Copied so later edits to the entity only show up through put()
+        Entry entry = new Entry(homestay, normalize(homestay.getLocation()), homestay.getAvailability().copy(), booked);
+        byId.put(homestay.getId(), entry);
+        byLocation.computeIfAbsent(entry.locationKey, k -> new TreeSet<>(PRICE_ORDER)).add(entry);
+    }
+
+    // Callers must hold the write lock
+    private Entry remove(Long homestayId) {
+        Entry entry = byId.remove(homestayId);
+        if (entry != null) {
+            NavigableSet<Entry> group = byLocation.get(entry.locationKey);
+            if (group != null) {
+                group.remove(entry);
+                if (group.isEmpty()) {
+                    byLocation.remove(entry.locationKey);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        final Homestay homestay;
+        final String locationKey;
+        // Snapshot of the price the entry is sorted by, so it can be found again after the homestay changes
+        final double price;
+        final int capacity;
+        final AvailabilityCalendar available;
+        final AvailabilityCalendar booked;
+
+        Entry(Homestay homestay, String locationKey, AvailabilityCalendar available, AvailabilityCalendar booked) {
+            this.homestay = homestay;
+            this.locationKey = locationKey;
+            this.price = homestay.getPrice() != null ? homestay.getPrice() : 0.0;
+            this.capacity = homestay.getCapacity() != null ? homestay.getCapacity() : Homestay.DEFAULT_CAPACITY;
+            this.available = available;
+            this.booked = booked;
+        }
+
+        static Entry probe(double price, long id) {
+            Homestay homestay = new Homestay();
+            homestay.setId(id);
+            homestay.setPrice(price);
+            return new Entry(homestay, null, null, null);
+        }
+    }
+
+    private record Head(Entry entry, Iterator<Entry> rest) {}
+}
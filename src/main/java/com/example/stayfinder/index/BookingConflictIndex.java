@@ -0,0 +1,139 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.repository.BookingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-homestay index of booked stays used for booking conflict detection.
+ *
+ * Each homestay keeps its active bookings as disjoint {@code [checkIn, checkOut)} ranges in a
+ * {@link TreeMap}; touching or overlapping ranges are merged on insert. Because the ranges are
+ * disjoint and sorted, a conflict check only has to look at the single range that starts
+ * before the requested check-out, which makes it O(log n) in the number of bookings.
+ *
+ * Ranges for a homestay are loaded the first time it is checked, only from its active bookings
+ * that end after today, and then kept current by {@link #add(Long, LocalDate, LocalDate)}. A stay
+ * starting before the loaded ranges begin is checked against the database instead. At most
+ * {@code booking.conflict-index.max-homestays} homestays are kept; the least used are reloaded on
+ * their next check. Callers hold the homestay's booking lock ({@code BookingService}) for all
+ * three operations, so a load cannot race an add or an invalidation of the same homestay.
+ */
+@Component
+public class BookingConflictIndex {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Cache<Long, BookedRanges> byHomestay;
+
+    @Autowired
+    public BookingConflictIndex(@Value("${booking.conflict-index.max-homestays:10000}") long maxHomestays) {
+        this.byHomestay = Caffeine.newBuilder()
+                .maximumSize(maxHomestays)
+                .build();
+    }
+
+    /**
+     * True when {@code [checkIn, checkOut)} overlaps an existing active booking of the homestay.
+     */
+    public boolean overlaps(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        BookedRanges ranges = ranges(homestayId);
+        if (!ranges.covers(checkIn)) {
+            return bookingRepository.existsOverlapping(homestayId, checkIn, checkOut);
+        }
+        return ranges.overlaps(checkIn, checkOut);
+    }
+
+    public void add(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        ranges(homestayId).add(checkIn, checkOut);
+    }
+
+    /**
+     * Drop the cached ranges of a homestay so they are reloaded on next use.
+     */
+    public void invalidate(Long homestayId) {
+        byHomestay.invalidate(homestayId);
+    }
+
+    private BookedRanges ranges(Long homestayId) {
+        BookedRanges ranges = byHomestay.getIfPresent(homestayId);
+        if (ranges != null) {
+            return ranges;
+        }
+        // Queried outside the cache's compute, whose bin lock would stall other homestays in the same bin
+        BookedRanges loaded = load(homestayId);
+        BookedRanges existing = byHomestay.asMap().putIfAbsent(homestayId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private BookedRanges load(Long homestayId) {
+        LocalDate today = LocalDate.now();
+        BookedRanges ranges = new BookedRanges(today);
+        for (BookingRepository.BookedStay stay : bookingRepository.findActiveEndingAfter(homestayId, today)) {
+            ranges.add(stay.getCheckInDate(), stay.getCheckOutDate());
+        }
+        return ranges;
+    }
+
+    /**
+     * Disjoint, sorted set of half-open date ranges keyed by start date.
+     */
+    static final class BookedRanges {
+
+        // start (inclusive) -> end (exclusive)
+        private final TreeMap<LocalDate, LocalDate> ranges = new TreeMap<>();
+
+        // Stays ending on or before this day were not loaded; null when every stay was
+        private final LocalDate from;
+
+        BookedRanges() {
+            this(null);
+        }
+
+        BookedRanges(LocalDate from) {
+            this.from = from;
+        }
+
+        boolean covers(LocalDate checkIn) {
+            return from == null || !checkIn.isBefore(from);
+        }
+
+        synchronized boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+            Map.Entry<LocalDate, LocalDate> before = ranges.lowerEntry(checkOut);
+            return before != null && before.getValue().isAfter(checkIn);
+        }
+
+        synchronized void add(LocalDate checkIn, LocalDate checkOut) {
+            if (!checkOut.isAfter(checkIn)) {
+                return;
+            }
+            LocalDate start = checkIn;
+            LocalDate end = checkOut;
+            // Absorb every range that overlaps or touches [start, end)
+            Map.Entry<LocalDate, LocalDate> entry = ranges.floorEntry(end);
+            while (entry != null && !entry.getValue().isBefore(start)) {
+                if (entry.getKey().isBefore(start)) {
+                    start = entry.getKey();
+                }
+                if (entry.getValue().isAfter(end)) {
+                    end = entry.getValue();
+                }
+                ranges.remove(entry.getKey());
+                entry = ranges.floorEntry(end);
+            }
+            ranges.put(start, end);
+        }
+
+        synchronized int size() {
+            return ranges.size();
+        }
+    }
+}
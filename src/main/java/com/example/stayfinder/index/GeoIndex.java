@@ -0,0 +1,395 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.HomestayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory spatial index of homestay coordinates for radius and bounding-box searches.
+ *
+ * Points are bucketed in a fixed grid of {@value #CELL_DEGREES} degree cells, about 5.5 km north to
+ * south, which is roughly the cell size of a five-character geohash. A cell keeps ids and
+ * coordinates in parallel primitive arrays, so a million points stay compact and a cell scan stays
+ * cheap. A query visits the cells overlapping its bounding box, or every occupied cell when there
+ * are fewer of those, and only then computes exact great-circle distances.
+ *
+ * Boxes do not wrap around the antimeridian; every listing is in India.
+ *
+ * The index is rebuilt from the database once the application is ready and kept current by
+ * {@link #put(Homestay)}. Until the first rebuild completes {@link #isReady()} is false and
+ * callers should fall back to {@link HomestayRepository#findInBox}. Puts that arrive while a rebuild
+ * reads the database are applied again to the rebuilt grid before it replaces the current one.
+ */
+@Component
+public class GeoIndex {
+
+    static final double CELL_DEGREES = 0.05;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+    private static final Comparator<Hit> NEAREST_FIRST = Comparator.comparingDouble(Hit::distanceKm)
+            .thenComparingLong(Hit::homestayId);
+
+    @Autowired
+    private HomestayRepository homestayRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes rebuild() without pinning a virtual thread while it reads the coordinates
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // cell key -> points in that cell
+    private Map<Long, Cell> cells = new HashMap<>();
+    // homestay id -> key of the cell it is in
+    private Map<Long, Long> cellOf = new HashMap<>();
+
+    // homestay id -> latest coordinates put while a rebuild reads the database; null otherwise.
+    // Guarded by the write lock
+    private Map<Long, Double[]> putsDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            trackPuts(true);
+            try {
+                Map<Long, Cell> freshCells = new HashMap<>();
+                Map<Long, Long> freshCellOf = new HashMap<>();
+                for (HomestayRepository.Coordinates point : homestayRepository.findAllCoordinates()) {
+                    add(freshCells, freshCellOf, point.getId(), point.getLatitude(), point.getLongitude());
+                }
+                lock.writeLock().lock();
+                try {
+                    cells = freshCells;
+                    cellOf = freshCellOf;
+                    for (Map.Entry<Long, Double[]> put : putsDuringRebuild.entrySet()) {
+                        move(put.getKey(), put.getValue()[0], put.getValue()[1]);
+                    }
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                trackPuts(false);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void trackPuts(boolean on) {
+        lock.writeLock().lock();
+        try {
+            putsDuringRebuild = on ? new HashMap<>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add, move or (when it no longer has coordinates) drop a homestay.
+     */
+    public void put(Homestay homestay) {
+        if (homestay == null || homestay.getId() == null) {
+            return;
+        }
+        put(homestay.getId(), homestay.getLatitude(), homestay.getLongitude());
+    }
+
+    public void put(Long homestayId, Double latitude, Double longitude) {
+        lock.writeLock().lock();
+        try {
+            move(homestayId, latitude, longitude);
+            if (putsDuringRebuild != null) {
+                putsDuringRebuild.put(homestayId, new Double[] {latitude, longitude});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void move(Long homestayId, Double latitude, Double longitude) {
+        remove(homestayId);
+        if (latitude != null && longitude != null) {
+            add(cells, cellOf, homestayId, latitude, longitude);
+        }
+    }
+
+    /**
+     * Homestays within {@code radiusKm} of the given point, nearest first.
+     */
+    public List<Hit> nearby(double latitude, double longitude, double radiusKm) {
+        return nearby(latitude, longitude, radiusKm, Integer.MAX_VALUE, id -> true);
+    }
+
+    /**
+     * The {@code limit} homestays nearest to the given point within {@code radiusKm} that
+     * {@code accept} lets through, nearest first. Only hits that would make the cut are tested,
+     * under the index's read lock, so {@code accept} should be a cheap in-memory check.
+     */
+    public List<Hit> nearby(double latitude, double longitude, double radiusKm, int limit, LongPredicate accept) {
+        Box box = Box.around(latitude, longitude, radiusKm);
+        Nearest nearest = new Nearest(limit, accept);
+        lock.readLock().lock();
+        try {
+            for (Cell cell : cellsIn(box)) {
+                for (int i = 0; i < cell.size; i++) {
+                    double distance = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+                    if (distance <= radiusKm) {
+                        nearest.offer(cell.ids[i], distance);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return nearest.hits();
+    }
+
+    /**
+     * Homestays inside the box, nearest to its centre first.
+     */
+    public List<Hit> within(Box box) {
+        return within(box, Integer.MAX_VALUE, id -> true);
+    }
+
+    /**
+     * As {@link #nearby(double, double, double, int, LongPredicate)}, for the homestays inside the box
+     * and measured from its centre.
+     */
+    public List<Hit> within(Box box, int limit, LongPredicate accept) {
+        Nearest nearest = new Nearest(limit, accept);
+        lock.readLock().lock();
+        try {
+            for (Cell cell : cellsIn(box)) {
+                for (int i = 0; i < cell.size; i++) {
+                    if (box.contains(cell.latitudes[i], cell.longitudes[i])) {
+                        nearest.offer(cell.ids[i], distanceKm(box.centreLatitude(), box.centreLongitude(),
+                                cell.latitudes[i], cell.longitudes[i]));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return nearest.hits();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points in kilometres.
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Callers must hold the read lock
+    private List<Cell> cellsIn(Box box) {
+        int firstRow = row(box.south());
+        int lastRow = row(box.north());
+        int firstColumn = column(box.west());
+        int lastColumn = column(box.east());
+        long visits = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+        List<Cell> result = new ArrayList<>();
+        if (visits > cells.size()) {
+            // Large box, sparse grid: cheaper to walk what is there
+            for (Map.Entry<Long, Cell> cell : cells.entrySet()) {
+                long r = cell.getKey() / COLUMNS;
+                long c = cell.getKey() % COLUMNS;
+                if (r >= firstRow && r <= lastRow && c >= firstColumn && c <= lastColumn) {
+                    result.add(cell.getValue());
+                }
+            }
+            return result;
+        }
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                Cell cell = cells.get(key(r, c));
+                if (cell != null) {
+                    result.add(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Callers must hold the write lock
+    private void remove(Long homestayId) {
+        Long key = cellOf.remove(homestayId);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        cell.remove(homestayId);
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private static void add(Map<Long, Cell> cells, Map<Long, Long> cellOf, long homestayId, double latitude, double longitude) {
+        long key = key(row(latitude), column(longitude));
+        cells.computeIfAbsent(key, k -> new Cell()).add(homestayId, latitude, longitude);
+        cellOf.put(homestayId, key);
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return Math.min(COLUMNS - 1, (int) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / CELL_DEGREES));
+    }
+
+    private static long key(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    public record Hit(long homestayId, double distanceKm) {}
+
+    /**
+     * The {@code limit} nearest accepted hits offered so far, kept in a heap with the farthest on top,
+     * so a query holds at most {@code limit} hits however many points are in range.
+     */
+    private static final class Nearest {
+
+        private final int limit;
+        private final LongPredicate accept;
+        private final PriorityQueue<Hit> farthestFirst = new PriorityQueue<>(NEAREST_FIRST.reversed());
+
+        Nearest(int limit, LongPredicate accept) {
+            this.limit = limit;
+            this.accept = accept;
+        }
+
+        void offer(long homestayId, double distanceKm) {
+            if (limit <= 0) {
+                return;
+            }
+            boolean full = farthestFirst.size() >= limit;
+            if (full) {
+                Hit farthest = farthestFirst.peek();
+                int order = Double.compare(distanceKm, farthest.distanceKm());
+                if (order > 0 || order == 0 && homestayId > farthest.homestayId()) {
+                    return;
+                }
+            }
+            if (!accept.test(homestayId)) {
+                return;
+            }
+            if (full) {
+                farthestFirst.poll();
+            }
+            farthestFirst.add(new Hit(homestayId, distanceKm));
+        }
+
+        List<Hit> hits() {
+            List<Hit> hits = new ArrayList<>(farthestFirst);
+            hits.sort(NEAREST_FIRST);
+            return hits;
+        }
+    }
+
+    /**
+     * A latitude/longitude rectangle in degrees, edges included.
+     */
+    public record Box(double south, double west, double north, double east) {
+
+        public Box {
+            if (south > north || west > east) {
+                throw new IllegalArgumentException("South must not be above north, nor west east of east");
+            }
+        }
+
+        /**
+         * The smallest box containing every point within {@code radiusKm} of the given point.
+         */
+        public static Box around(double latitude, double longitude, double radiusKm) {
+            double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            double cos = Math.cos(Math.toRadians(latitude));
+            double dLng = cos < 1e-9 ? 180 : Math.min(180, dLat / cos);
+            return new Box(Math.max(-90, latitude - dLat), Math.max(-180, longitude - dLng),
+                    Math.min(90, latitude + dLat), Math.min(180, longitude + dLng));
+        }
+
+        public boolean contains(double latitude, double longitude) {
+            return latitude >= south && latitude <= north && longitude >= west && longitude <= east;
+        }
+
+        public double centreLatitude() {
+            return (south + north) / 2;
+        }
+
+        public double centreLongitude() {
+            return (west + east) / 2;
+        }
+    }
+
+    /**
+     * The points of one grid cell in parallel arrays.
+     */
+    private static final class Cell {
+        long[] ids = new long[4];
+        double[] latitudes = new double[4];
+        double[] longitudes = new double[4];
+        int size;
+
+        void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        // Moves the last point into the gap; order within a cell does not matter
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return;
+                }
+            }
+        }
+    }
+}
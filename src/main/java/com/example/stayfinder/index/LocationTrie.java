@@ -0,0 +1,158 @@
+package com.example.stayfinder.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix trie of location names for typeahead suggestions.
+ *
+ * Every word start of a name is inserted, so both "east" and "godavari" lead to "East Godavari".
+ * Each node caches its top {@code suggestionsPerNode} terms by weight, which turns a lookup into a
+ * walk down the prefix plus a copy of a short list. Updates recompute the cached lists along the
+ * paths of the changed term only.
+ *
+ * Not thread-safe: owners are expected to guard access themselves.
+ */
+public class LocationTrie {
+
+    private static final Comparator<Term> RANKING = Comparator.comparingLong((Term t) -> t.weight).reversed()
+            .thenComparing(t -> t.name);
+
+    private final int suggestionsPerNode;
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    public LocationTrie(int suggestionsPerNode) {
+        this.suggestionsPerNode = suggestionsPerNode;
+    }
+
+    /**
+     * Insert a name or change its weight. Names are matched case-insensitively; the first spelling
+     * inserted is the one suggested.
+     */
+    public void put(String name, long weight) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Term term = terms.get(key);
+        if (term == null) {
+            term = new Term(name.trim(), key, weight);
+            terms.put(key, term);
+            for (String suffix : wordStarts(key)) {
+                insertPath(suffix).terminals.add(term);
+            }
+        } else {
+            term.weight = weight;
+        }
+        refresh(term);
+    }
+
+    public long weightOf(String name) {
+        Term term = terms.get(normalize(name));
+        return term == null ? 0 : term.weight;
+    }
+
+    /**
+     * Up to {@code limit} names with a word starting with {@code prefix}, highest weight first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, node.top.size()));
+        for (Term term : node.top) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(new Suggestion(term.name, term.weight));
+        }
+        return result;
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static List<String> wordStarts(String key) {
+        List<String> starts = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || key.charAt(i - 1) == ' ') {
+                starts.add(key.substring(i));
+            }
+        }
+        return starts;
+    }
+
+    private Node insertPath(String suffix) {
+        Node node = root;
+        for (int i = 0; i < suffix.length(); i++) {
+            node = node.children.computeIfAbsent(suffix.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    // Recompute the cached top lists on every path that leads to the term, deepest node first
+    private void refresh(Term term) {
+        for (String suffix : wordStarts(term.key)) {
+            Node[] path = new Node[suffix.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < suffix.length(); i++) {
+                path[i + 1] = path[i].children.get(suffix.charAt(i));
+            }
+            for (int i = path.length - 1; i >= 0; i--) {
+                recomputeTop(path[i]);
+            }
+        }
+    }
+
+    private void recomputeTop(Node node) {
+        Set<Term> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        candidates.addAll(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        List<Term> ranked = new ArrayList<>(candidates);
+        ranked.sort(RANKING);
+        node.top = ranked.size() > suggestionsPerNode ? List.copyOf(ranked.subList(0, suggestionsPerNode)) : List.copyOf(ranked);
+    }
+
+    public record Suggestion(String name, long homestays) {}
+
+    private static final class Term {
+        final String name;
+        final String key;
+        long weight;
+
+        Term(String name, String key, long weight) {
+            this.name = name;
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        final List<Term> terminals = new ArrayList<>(1);
+        List<Term> top = List.of();
+    }
+}
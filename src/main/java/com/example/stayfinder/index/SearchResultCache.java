@@ -0,0 +1,137 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.dto.SearchCursor;
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.model.AvailabilityCalendar;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of homestay search results, holding only the ids of the homestays found.
+ *
+ * Entries are keyed on the normalized location needle and the date range (plus the page position
+ * for paged searches). Invalidation is targeted: a booking evicts only entries whose needle matches
+ * the homestay's location and whose range overlaps the stay, and an availability change evicts
+ * only entries that could have contained the homestay before or after the change.
+ *
+ * A search that started before an invalidation is not cached, so a concurrent booking cannot
+ * leave a stale result behind; see {@link #stamp()}.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String NAME = "searchResults";
+
+    private final Cache<Key, List<Long>> cache;
+
+    // Incremented by every invalidation
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public SearchResultCache(@Value("${search.result-cache.max-entries:10000}") long maxEntries,
+                             @Value("${search.result-cache.ttl:10m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this(maxEntries, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    SearchResultCache(long maxEntries, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public List<Long> get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Take before running a search and hand to {@link #put}; the result is only cached if no
+     * invalidation happened in between.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(Key key, List<Long> homestayIds, long stamp) {
+        if (invalidations.get() != stamp) {
+            return;
+        }
+        cache.put(key, List.copyOf(homestayIds));
+        // An invalidation may have run between the check and the put
+        if (invalidations.get() != stamp) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * A booking took {@code [checkIn, checkOut)} of a homestay in {@code location}; a null location
+     * evicts overlapping entries for every location.
+     */
+    public void bookingAdded(String location, LocalDate checkIn, LocalDate checkOut) {
+        invalidations.incrementAndGet();
+        String locationKey = location != null ? AvailabilityIndex.normalize(location) : null;
+        cache.asMap().keySet().removeIf(key ->
+                (locationKey == null || key.matches(locationKey)) && key.overlaps(checkIn, checkOut));
+    }
+
+    /**
+     * A homestay in {@code location} with the given available nights was added, changed or
+     * removed. Call once with its state before the change and once with its state after.
+     */
+    public void availabilityChanged(String location, AvailabilityCalendar nights) {
+        if (location == null || nights == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        String locationKey = AvailabilityIndex.normalize(location);
+        cache.asMap().keySet().removeIf(key ->
+                key.matches(locationKey) && nights.containsAny(key.checkIn(), key.checkOut()));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * A search: all results when {@code limit} is 0, otherwise one page read from {@code cursor}.
+     */
+    public record Key(String location, LocalDate checkIn, LocalDate checkOut,
+                      SearchCursor cursor, boolean forward, int limit, SearchFilter filter) {
+
+        public static Key of(String location, LocalDate checkIn, LocalDate checkOut) {
+            return new Key(AvailabilityIndex.normalize(location), checkIn, checkOut, null, true, 0, SearchFilter.NONE);
+        }
+
+        public static Key page(String location, LocalDate checkIn, LocalDate checkOut,
+                               SearchCursor cursor, boolean forward, int limit, SearchFilter filter) {
+            return new Key(AvailabilityIndex.normalize(location), checkIn, checkOut, cursor, forward, limit, filter);
+        }
+
+        // Searches match locations containing the needle, like LIKE %location%
+        boolean matches(String locationKey) {
+            return locationKey.contains(location);
+        }
+
+        boolean overlaps(LocalDate from, LocalDate toExclusive) {
+            return checkIn.isBefore(toExclusive) && checkOut.isAfter(from);
+        }
+    }
+}
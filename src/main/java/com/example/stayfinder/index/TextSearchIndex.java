@@ -0,0 +1,361 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.HomestayRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over homestay locations and descriptions.
+ *
+ * Text is split into lower-cased, accent-free tokens. Spelling variants and old place names
+ * ("vizag", "bezawada") are mapped to one canonical token through {@code data/location-aliases.json},
+ * on the indexing side as well as the query side. Every token has a posting list of homestay ids
+ * with a term frequency in which a location word counts {@value #LOCATION_BOOST} times as much as a
+ * description word.
+ *
+ * A query word matches indexed tokens exactly, as a prefix ("visakha"), or, when it is not in the
+ * vocabulary at all, through a trigram index over the vocabulary: tokens whose padded trigrams
+ * overlap enough (Jaccard similarity of at least {@value #FUZZY_THRESHOLD}) count as a weaker match.
+ * Homestays are ranked by a BM25-style score multiplied by the share of query words they match, so
+ * a homestay matching every word beats one that only matches the rarest.
+ *
+ * The index is rebuilt once the application is ready and after bulk imports, and kept current by
+ * {@link #put(Homestay)} as single homestays are saved. Puts that arrive while a rebuild reads the
+ * database are applied again to the rebuilt corpus before it replaces the current one.
+ */
+@Component
+public class TextSearchIndex {
+
+    private static final String ALIASES = "/data/location-aliases.json";
+
+    static final int LOCATION_BOOST = 3;
+    static final double FUZZY_THRESHOLD = 0.4;
+
+    // Match quality of a prefix match, and the factor applied to the similarity of a fuzzy one
+    private static final double PREFIX_MATCH = 0.8;
+    private static final double FUZZY_MATCH = 0.7;
+
+    // Shorter query words only match exactly; their prefixes and trigrams match too much
+    private static final int MIN_EXPANSION_LENGTH = 3;
+    private static final int MAX_EXPANSIONS = 50;
+
+    // BM25 term frequency saturation
+    private static final double K1 = 1.2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "from", "in", "is", "near", "of", "on", "or", "the", "to", "with");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparingLong(Hit::homestayId);
+
+    @Autowired
+    private HomestayRepository homestayRepository;
+
+    // alias -> canonical tokens
+    private final Map<String, List<String>> aliases;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Held for a whole rebuild, see AvailabilityIndex#rebuildLock
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Corpus corpus = new Corpus();
+
+    // homestay id -> latest token weights put while a rebuild reads the database; null otherwise.
+    // Guarded by the write lock
+    private Map<Long, Map<String, Integer>> putsDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    public TextSearchIndex(ObjectMapper objectMapper) {
+        this.aliases = loadAliases(objectMapper);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            trackPuts(true);
+            try {
+                Corpus fresh = new Corpus();
+                for (Homestay homestay : homestayRepository.findAll()) {
+                    fresh.add(homestay.getId(), weigh(homestay));
+                }
+                lock.writeLock().lock();
+                try {
+                    for (Map.Entry<Long, Map<String, Integer>> put : putsDuringRebuild.entrySet()) {
+                        fresh.remove(put.getKey());
+                        fresh.add(put.getKey(), put.getValue());
+                    }
+                    corpus = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                trackPuts(false);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void trackPuts(boolean on) {
+        lock.writeLock().lock();
+        try {
+            putsDuringRebuild = on ? new HashMap<>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add or replace the indexed text of a homestay.
+     */
+    public void put(Homestay homestay) {
+        if (homestay == null || homestay.getId() == null) {
+            return;
+        }
+        Map<String, Integer> weights = weigh(homestay);
+        lock.writeLock().lock();
+        try {
+            corpus.remove(homestay.getId());
+            corpus.add(homestay.getId(), weights);
+            if (putsDuringRebuild != null) {
+                putsDuringRebuild.put(homestay.getId(), weights);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} homestays matching at least one word of {@code query}, best match first.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, double[]> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documents = corpus.documents.size();
+            for (String word : words) {
+                // A homestay scores once per query word, through its best matching token
+                Map<Long, Double> best = new HashMap<>();
+                for (Map.Entry<String, Double> match : corpus.expand(word).entrySet()) {
+                    Map<Long, Integer> posting = corpus.postings.get(match.getKey());
+                    double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Long, Integer> occurrence : posting.entrySet()) {
+                        int tf = occurrence.getValue();
+                        double score = match.getValue() * idf * tf * (K1 + 1) / (tf + K1);
+                        best.merge(occurrence.getKey(), score, Math::max);
+                    }
+                }
+                for (Map.Entry<Long, Double> entry : best.entrySet()) {
+                    double[] total = scores.computeIfAbsent(entry.getKey(), id -> new double[2]);
+                    total[0] += entry.getValue();
+                    total[1]++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            double coverage = entry.getValue()[1] / words.size();
+            hits.add(new Hit(entry.getKey(), entry.getValue()[0] * coverage * coverage));
+        }
+        hits.sort(RANKING);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return corpus.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cased, accent-free words of {@code text} without stopwords, with aliases replaced by
+     * their canonical tokens.
+     */
+    List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (word.length() < 2 || STOPWORDS.contains(word)) {
+                continue;
+            }
+            List<String> canonical = aliases.get(word);
+            if (canonical != null) {
+                tokens.addAll(canonical);
+            } else {
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<String, Integer> weigh(Homestay homestay) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(homestay.getLocation())) {
+            weights.merge(token, LOCATION_BOOST, Integer::sum);
+        }
+        for (String token : tokenize(homestay.getDescription())) {
+            weights.merge(token, 1, Integer::sum);
+        }
+        return weights;
+    }
+
+    static Set<String> trigrams(String token) {
+        String padded = "$$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static Map<String, List<String>> loadAliases(ObjectMapper objectMapper) {
+        try (InputStream is = TextSearchIndex.class.getResourceAsStream(ALIASES)) {
+            if (is == null) {
+                System.out.println("location-aliases.json not found on classpath");
+                return Map.of();
+            }
+            Map<String, String> raw = objectMapper.readValue(is, new TypeReference<Map<String, String>>() {});
+            Map<String, List<String>> aliases = new HashMap<>();
+            for (Map.Entry<String, String> alias : raw.entrySet()) {
+                aliases.put(alias.getKey().toLowerCase(Locale.ROOT),
+                        List.of(alias.getValue().toLowerCase(Locale.ROOT).split("\\s+")));
+            }
+            return Map.copyOf(aliases);
+        } catch (Exception e) {
+            System.err.println("Failed to load location aliases: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    public record Hit(long homestayId, double score) {}
+
+    /**
+     * The posting lists and the vocabulary trigram index. Not thread-safe: guarded by the owner's lock.
+     */
+    private static final class Corpus {
+
+        // token -> homestay id -> weighted term frequency; sorted so a prefix is a key range
+        final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        // trigram -> indexed tokens containing it
+        final Map<String, Set<String>> trigramIndex = new HashMap<>();
+        // homestay id -> its weighted tokens, kept so an update can take them out again
+        final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+        void add(Long homestayId, Map<String, Integer> weights) {
+            documents.put(homestayId, weights);
+            for (Map.Entry<String, Integer> token : weights.entrySet()) {
+                postings.computeIfAbsent(token.getKey(), this::newToken).put(homestayId, token.getValue());
+            }
+        }
+
+        void remove(Long homestayId) {
+            Map<String, Integer> weights = documents.remove(homestayId);
+            if (weights == null) {
+                return;
+            }
+            for (String token : weights.keySet()) {
+                Map<Long, Integer> posting = postings.get(token);
+                posting.remove(homestayId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : trigrams(token)) {
+                        Set<String> tokens = trigramIndex.get(gram);
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            trigramIndex.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indexed tokens a query word matches, with the quality of each match between 0 and 1.
+         */
+        Map<String, Double> expand(String word) {
+            Map<String, Double> matches = new HashMap<>();
+            boolean known = postings.containsKey(word);
+            if (known) {
+                matches.put(word, 1.0);
+            }
+            if (word.length() < MIN_EXPANSION_LENGTH) {
+                return matches;
+            }
+            for (String token : postings.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+                if (matches.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                matches.put(token, PREFIX_MATCH);
+            }
+            if (known) {
+                return matches;
+            }
+            Set<String> grams = trigrams(word);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String token : trigramIndex.getOrDefault(gram, Set.of())) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                int common = candidate.getValue();
+                double similarity = (double) common / (grams.size() + trigrams(candidate.getKey()).size() - common);
+                if (similarity >= FUZZY_THRESHOLD) {
+                    matches.merge(candidate.getKey(), FUZZY_MATCH * similarity, Math::max);
+                }
+            }
+            return matches;
+        }
+
+        private Map<Long, Integer> newToken(String token) {
+            for (String gram : trigrams(token)) {
+                trigramIndex.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+            }
+            return new HashMap<>();
+        }
+    }
+}
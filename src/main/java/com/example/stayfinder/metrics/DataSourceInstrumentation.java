@@ -0,0 +1,47 @@
+package com.example.stayfinder.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the connection pool in a datasource-proxy {@link ProxyDataSource}, so every statement
+ * passes through the {@link SlowQueryLog} and, with {@code metrics.jdbc.count-rows} on, every
+ * result-set row through the {@link JdbcRowCounter}. The pool itself is untouched and still
+ * reports its own metrics, including how long requests wait for a connection
+ * ({@code hikaricp.connections.acquire}).
+ */
+@Component
+public class DataSourceInstrumentation implements BeanPostProcessor {
+
+    // Looked up lazily: post-processors are created before ordinary beans
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final ObjectProvider<JdbcRowCounter> rowCounter;
+    private final boolean countRows;
+
+    public DataSourceInstrumentation(ObjectProvider<SlowQueryLog> slowQueryLog,
+                                     ObjectProvider<JdbcRowCounter> rowCounter,
+                                     @Value("${metrics.jdbc.count-rows:true}") boolean countRows) {
+        this.slowQueryLog = slowQueryLog;
+        this.rowCounter = rowCounter;
+        this.countRows = countRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(slowQueryLog.getObject());
+        if (countRows) {
+            builder.proxyResultSet().methodListener(rowCounter.getObject());
+        }
+        return builder.build();
+    }
+}
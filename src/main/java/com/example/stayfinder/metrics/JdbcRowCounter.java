@@ -0,0 +1,39 @@
+package com.example.stayfinder.metrics;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+
+/**
+ * Counts the rows the current thread reads from JDBC result sets, whether Hibernate turns them
+ * into entities or into projections. {@link RowsPerRequestInterceptor} resets the count when a
+ * request starts and records it when the request completes.
+ */
+@Component
+public class JdbcRowCounter implements MethodExecutionListener {
+
+    private final ThreadLocal<long[]> rows = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && executionContext.getMethod().getName().equals("next")) {
+            rows.get()[0]++;
+        }
+    }
+
+    public void reset() {
+        rows.get()[0] = 0;
+    }
+
+    public long rows() {
+        return rows.get()[0];
+    }
+}
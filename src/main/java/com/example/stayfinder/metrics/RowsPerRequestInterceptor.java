@@ -0,0 +1,40 @@
+package com.example.stayfinder.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the JDBC rows read while handling a request, view rendering included, as the
+ * {@code jdbc.rows.per.request} summary tagged with the request's URI pattern.
+ */
+public class RowsPerRequestInterceptor implements HandlerInterceptor {
+
+    private final JdbcRowCounter rowCounter;
+    private final MeterRegistry meterRegistry;
+
+    public RowsPerRequestInterceptor(JdbcRowCounter rowCounter, MeterRegistry meterRegistry) {
+        this.rowCounter = rowCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        rowCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("jdbc.rows.per.request")
+                .description("JDBC rows read while handling a request")
+                .baseUnit("rows")
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(rowCounter.rows());
+    }
+}
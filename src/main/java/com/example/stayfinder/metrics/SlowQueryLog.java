@@ -0,0 +1,141 @@
+package com.example.stayfinder.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement and logs the slow ones, replacing {@code spring.jpa.show-sql}.
+ *
+ * All statements feed the {@code jdbc.statements} timer. Those taking at least
+ * {@code slow-query.threshold} are counted in {@code jdbc.statements.slow}, and a
+ * {@code slow-query.sample-rate} share of them is logged at WARN to the {@value #LOGGER} logger,
+ * so a burst of slow statements cannot flood the log. Its level and appenders (e.g. an async one)
+ * are set through the logging configuration like any other logger.
+ *
+ * Bind values are only written with {@code slow-query.log-values=true}: they include emails and
+ * password hashes of the {@code users} table, so turn it on for a diagnosis, not permanently. Only
+ * the first few parameter sets of a batch and the first characters of long values are shown.
+ */
+@Component
+public class SlowQueryLog implements QueryExecutionListener {
+
+    static final String LOGGER = "stayfinder.slow-query";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+    private static final String STARTED = SlowQueryLog.class.getName() + ".started";
+    private static final int MAX_LOGGED_BATCH_ENTRIES = 3;
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private static final Comparator<ParameterSetOperation> BY_INDEX = Comparator.comparing(
+            operation -> operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE);
+
+    @Value("${slow-query.threshold:200ms}")
+    private Duration threshold;
+
+    @Value("${slow-query.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${slow-query.log-values:false}")
+    private boolean logValues;
+
+    private final Timer statements;
+    private final Counter slowStatements;
+
+    @Autowired
+    public SlowQueryLog(MeterRegistry meterRegistry) {
+        this.statements = Timer.builder("jdbc.statements")
+                .description("Execution time of JDBC statements")
+                .register(meterRegistry);
+        this.slowStatements = Counter.builder("jdbc.statements.slow")
+                .description("Statements slower than slow-query.threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        long elapsed = started != null ? System.nanoTime() - started : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        statements.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed < threshold.toNanos()) {
+            return;
+        }
+        slowStatements.increment();
+        if (!log.isWarnEnabled() || sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        log.warn(format(TimeUnit.NANOSECONDS.toMillis(elapsed), execInfo, queryInfoList, logValues));
+    }
+
+    static String format(long elapsedMillis, ExecutionInfo execInfo, List<QueryInfo> queryInfoList, boolean logValues) {
+        StringBuilder line = new StringBuilder("Slow query: ").append(elapsedMillis).append(" ms");
+        if (execInfo.isBatch()) {
+            line.append(", batch of ").append(execInfo.getBatchSize());
+        }
+        if (!execInfo.isSuccess()) {
+            line.append(", failed");
+        }
+        for (QueryInfo query : queryInfoList) {
+            line.append("\n    ").append(query.getQuery().strip());
+            if (!logValues) {
+                continue;
+            }
+            List<List<ParameterSetOperation>> parameterSets = query.getParametersList();
+            for (int i = 0; i < parameterSets.size() && i < MAX_LOGGED_BATCH_ENTRIES; i++) {
+                line.append("\n      ").append(values(parameterSets.get(i)));
+            }
+            if (parameterSets.size() > MAX_LOGGED_BATCH_ENTRIES) {
+                line.append("\n      ... ").append(parameterSets.size() - MAX_LOGGED_BATCH_ENTRIES).append(" more");
+            }
+        }
+        return line.toString();
+    }
+
+    private static String values(List<ParameterSetOperation> operations) {
+        StringBuilder values = new StringBuilder("[");
+        for (ParameterSetOperation operation : operations.stream().sorted(BY_INDEX).toList()) {
+            if (values.length() > 1) {
+                values.append(", ");
+            }
+            Object[] args = operation.getArgs();
+            values.append(ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2
+                    ? "NULL" : value(args[1]));
+        }
+        return values.append(']').toString();
+    }
+
+    private static String value(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.stayfinder.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The nights a homestay can be booked, stored as one 366-bit bitset per calendar year.
+ *
+ * Looking up a night is a map lookup plus a bit test, and range checks AND whole 64-night words
+ * against a mask instead of walking dates. The calendar is persisted in the {@code availability}
+ * column of {@code homestays} through {@link AvailabilityCalendarConverter}; a year costs 48 bytes
+ * there instead of 365 rows of {@code homestay_available_dates}.
+ *
+ * Not thread-safe: owners are expected to guard access themselves.
+ */
+public class AvailabilityCalendar {
+
+    // 366 bits: bit (dayOfYear - 1) is set when that night is available
+    static final int WORDS_PER_YEAR = 6;
+    static final int BYTES_PER_YEAR = 46;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final TreeMap<Integer, long[]> years = new TreeMap<>();
+
+    public AvailabilityCalendar() {}
+
+    public static AvailabilityCalendar of(Iterable<LocalDate> dates) {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        if (dates != null) {
+            for (LocalDate date : dates) {
+                if (date != null) {
+                    calendar.add(date);
+                }
+            }
+        }
+        return calendar;
+    }
+
+    public AvailabilityCalendar copy() {
+        AvailabilityCalendar copy = new AvailabilityCalendar();
+        for (Map.Entry<Integer, long[]> year : years.entrySet()) {
+            copy.years.put(year.getKey(), year.getValue().clone());
+        }
+        return copy;
+    }
+
+    public void add(LocalDate date) {
+        int bit = date.getDayOfYear() - 1;
+        years.computeIfAbsent(date.getYear(), y -> new long[WORDS_PER_YEAR])[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * Mark every night in {@code [from, toExclusive)}.
+     */
+    public void addRange(LocalDate from, LocalDate toExclusive) {
+        for (LocalDate date = from; date.isBefore(toExclusive); date = date.plusDays(1)) {
+            add(date);
+        }
+    }
+
+    public void remove(LocalDate date) {
+        long[] words = years.get(date.getYear());
+        if (words != null) {
+            int bit = date.getDayOfYear() - 1;
+            words[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    public boolean contains(LocalDate date) {
+        long[] words = years.get(date.getYear());
+        int bit = date.getDayOfYear() - 1;
+        return words != null && (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * True when at least one night in {@code [from, toExclusive)} is available.
+     */
+    public boolean containsAny(LocalDate from, LocalDate toExclusive) {
+        return containsAny(from, toExclusive, null);
+    }
+
+    /**
+     * True when at least one night in {@code [from, toExclusive)} is set here and not set in {@code excluded}.
+     */
+    public boolean containsAny(LocalDate from, LocalDate toExclusive, AvailabilityCalendar excluded) {
+        if (!from.isBefore(toExclusive)) {
+            return false;
+        }
+        LocalDate last = toExclusive.minusDays(1);
+        for (Map.Entry<Integer, long[]> year : years.subMap(from.getYear(), true, last.getYear(), true).entrySet()) {
+            long[] minus = excluded != null ? excluded.years.get(year.getKey()) : null;
+            int start = year.getKey() == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int end = year.getKey() == last.getYear() ? last.getDayOfYear() : 366;
+            long[] words = year.getValue();
+            for (int w = start >>> 6; w <= (end - 1) >>> 6; w++) {
+                long bits = words[w] & mask(w, start, end);
+                if (minus != null) {
+                    bits &= ~minus[w];
+                }
+                if (bits != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when every night in {@code [from, toExclusive)} is available.
+     */
+    public boolean containsAll(LocalDate from, LocalDate toExclusive) {
+        if (!from.isBefore(toExclusive)) {
+            return true;
+        }
+        LocalDate last = toExclusive.minusDays(1);
+        for (int year = from.getYear(); year <= last.getYear(); year++) {
+            long[] words = years.get(year);
+            if (words == null) {
+                return false;
+            }
+            int start = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int end = year == last.getYear() ? last.getDayOfYear() : LocalDate.of(year, 1, 1).lengthOfYear();
+            for (int w = start >>> 6; w <= (end - 1) >>> 6; w++) {
+                long mask = mask(w, start, end);
+                if ((words[w] & mask) != mask) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (long[] words : years.values()) {
+            for (long word : words) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (long[] words : years.values()) {
+            for (long word : words) {
+                size += Long.bitCount(word);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The available nights in ascending order.
+     */
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>(size());
+        for (Map.Entry<Integer, long[]> year : years.entrySet()) {
+            LocalDate firstOfYear = LocalDate.of(year.getKey(), 1, 1);
+            long[] words = year.getValue();
+            for (int w = 0; w < WORDS_PER_YEAR; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    dates.add(firstOfYear.plusDays((w << 6) + Long.numberOfTrailingZeros(word)));
+                }
+            }
+        }
+        return Collections.unmodifiableList(dates);
+    }
+
+    /**
+     * Compact form: a format version byte, then for each non-empty year its number as two bytes
+     * followed by the 366-bit set in 46 little-endian bytes.
+     */
+    public byte[] toBytes() {
+        List<Map.Entry<Integer, long[]>> nonEmpty = new ArrayList<>();
+        for (Map.Entry<Integer, long[]> year : years.entrySet()) {
+            if (Arrays.stream(year.getValue()).anyMatch(word -> word != 0)) {
+                nonEmpty.add(year);
+            }
+        }
+        byte[] bytes = new byte[1 + nonEmpty.size() * (2 + BYTES_PER_YEAR)];
+        bytes[0] = FORMAT_VERSION;
+        int pos = 1;
+        for (Map.Entry<Integer, long[]> year : nonEmpty) {
+            bytes[pos++] = (byte) (year.getKey() >>> 8);
+            bytes[pos++] = (byte) (int) year.getKey();
+            long[] words = year.getValue();
+            for (int b = 0; b < BYTES_PER_YEAR; b++) {
+                bytes[pos++] = (byte) (words[b >>> 3] >>> ((b & 7) << 3));
+            }
+        }
+        return bytes;
+    }
+
+    public static AvailabilityCalendar fromBytes(byte[] bytes) {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        if (bytes == null || bytes.length == 0) {
+            return calendar;
+        }
+        if (bytes[0] != FORMAT_VERSION || (bytes.length - 1) % (2 + BYTES_PER_YEAR) != 0) {
+            throw new IllegalArgumentException("Unrecognized availability calendar format");
+        }
+        for (int pos = 1; pos < bytes.length; ) {
+            int year = ((bytes[pos++] & 0xFF) << 8) | (bytes[pos++] & 0xFF);
+            long[] words = new long[WORDS_PER_YEAR];
+            for (int b = 0; b < BYTES_PER_YEAR; b++) {
+                words[b >>> 3] |= (bytes[pos++] & 0xFFL) << ((b & 7) << 3);
+            }
+            calendar.years.put(year, words);
+        }
+        return calendar;
+    }
+
+    // Bits of word w that fall inside [start, end)
+    private static long mask(int w, int start, int end) {
+        long mask = -1L;
+        if (w == start >>> 6) {
+            mask &= -1L << (start & 63);
+        }
+        if (w == (end - 1) >>> 6) {
+            mask &= -1L >>> (63 - ((end - 1) & 63));
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AvailabilityCalendar other && Arrays.equals(toBytes(), other.toBytes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toBytes());
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityCalendar" + dates();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.stayfinder.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.MutableMutabilityPlan;
+
+import java.io.Serializable;
+
+/**
+ * Stores an {@link AvailabilityCalendar} in a single binary column.
+ *
+ * The calendar is mutable, so Hibernate is told to snapshot it by copy; otherwise nights added
+ * to a managed homestay's calendar in place would not be detected as a change.
+ */
+@Converter
+@Mutability(AvailabilityCalendarConverter.CalendarMutabilityPlan.class)
+public class AvailabilityCalendarConverter implements AttributeConverter<AvailabilityCalendar, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(AvailabilityCalendar calendar) {
+        return calendar == null ? null : calendar.toBytes();
+    }
+
+    @Override
+    public AvailabilityCalendar convertToEntityAttribute(byte[] bytes) {
+        return AvailabilityCalendar.fromBytes(bytes);
+    }
+
+    public static class CalendarMutabilityPlan extends MutableMutabilityPlan<AvailabilityCalendar> {
+
+        @Override
+        protected AvailabilityCalendar deepCopyNotNull(AvailabilityCalendar value) {
+            return value.copy();
+        }
+
+        @Override
+        public Serializable disassemble(AvailabilityCalendar value, SharedSessionContract session) {
+            return value == null ? null : value.toBytes();
+        }
+
+        @Override
+        public AvailabilityCalendar assemble(Serializable cached, SharedSessionContract session) {
+            return cached == null ? null : AvailabilityCalendar.fromBytes((byte[]) cached);
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.example.stayfinder.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "homestays")
+@Table(name = "homestays", indexes = {
+        // Keyset order of the search, and the same order inside a guest-count range
+        @Index(name = "idx_homestays_price_id", columnList = "price, id"),
+        @Index(name = "idx_homestays_capacity_price", columnList = "capacity, price, id"),
+        @Index(name = "idx_homestays_lat_lng", columnList = "latitude, longitude")
+})
 public class Homestay {
 
+    public static final int DEFAULT_CAPACITY = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,10 +35,21 @@ public class Homestay {
     @NotNull(message = "Price is required")
     private Double price;
 
-    @ElementCollection
-    @CollectionTable(name = "homestay_available_dates", joinColumns = @JoinColumn(name = "homestay_id"))
-    @Column(name = "available_date")
-    private List<LocalDate> availableDates = new ArrayList<>();
+    // Guests the homestay sleeps; rows that predate the column get the default
+    @NotNull(message = "Capacity is required")
+    @ColumnDefault("2")
+    @Column(nullable = false)
+    private Integer capacity = DEFAULT_CAPACITY;
+
+    // WGS84 degrees; null for listings without a map position, which geo searches skip
+    private Double latitude;
+
+    private Double longitude;
+
+    // Replaces the homestay_available_dates table; see AvailabilityMigration for existing rows
+    @Convert(converter = AvailabilityCalendarConverter.class)
+    @Column(name = "availability", length = 4096)
+    private AvailabilityCalendar availability = new AvailabilityCalendar();
 
     @OneToMany(mappedBy = "homestay", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings = new ArrayList<>();
@@ -42,7 +61,7 @@ public class Homestay {
         this.location = location;
         this.description = description;
         this.price = price;
-        this.availableDates = availableDates;
+        this.availability = AvailabilityCalendar.of(availableDates);
     }
 
     // Getters and Setters
@@ -86,12 +105,51 @@ public class Homestay {
         this.price = price;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
+    public AvailabilityCalendar getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(AvailabilityCalendar availability) {
+        this.availability = availability != null ? availability : new AvailabilityCalendar();
+    }
+
+    /**
+     * The available nights in ascending order, read from {@link #getAvailability()}.
+     */
     public List<LocalDate> getAvailableDates() {
-        return availableDates;
+        return availability.dates();
     }
 
     public void setAvailableDates(List<LocalDate> availableDates) {
-        this.availableDates = availableDates;
+        this.availability = AvailabilityCalendar.of(availableDates);
     }
 
     public List<Booking> getBookings() {
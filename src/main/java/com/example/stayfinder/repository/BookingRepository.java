@@ -1,12 +1,62 @@
 package com.example.stayfinder.repository;
 
+import com.example.stayfinder.dto.BookingView;
 import com.example.stayfinder.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserId(Long userId);
+
+    @Query("SELECT new com.example.stayfinder.dto.BookingView(b.id, b.checkInDate, b.checkOutDate, b.status, h.id, h.location, h.description, h.price, h.capacity)"
+            + " FROM Booking b JOIN b.homestay h WHERE b.user.id = :userId ORDER BY b.checkInDate DESC, b.id DESC")
+    List<BookingView> findViewsByUserId(@Param("userId") Long userId);
+
+    // Same rows read as they are consumed, for rendering while reading (StreamingViews); needs an open transaction.
+    // MySQL Connector/J only reads in fetch-size batches with useCursorFetch=true on the URL, else it buffers the result.
+    @Query("SELECT new com.example.stayfinder.dto.BookingView(b.id, b.checkInDate, b.checkOutDate, b.status, h.id, h.location, h.description, h.price, h.capacity)"
+            + " FROM Booking b JOIN b.homestay h WHERE b.user.id = :userId ORDER BY b.checkInDate DESC, b.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<BookingView> streamViewsByUserId(@Param("userId") Long userId);
+
     List<Booking> findByHomestayId(Long homestayId);
-}
\ No newline at end of file
+    List<Booking> findByStatusNot(Booking.Status status);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.homestay.id = :homestayId AND b.status <> com.example.stayfinder.model.Booking.Status.CANCELLED"
+            + " AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn")
+    boolean existsOverlapping(@Param("homestayId") Long homestayId, @Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Booking.Status status);
+
+    // Active stays of a homestay that end after the given day, for the booking conflict index
+    @Query("SELECT b.homestay.id AS homestayId, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate FROM Booking b"
+            + " WHERE b.homestay.id = :homestayId AND b.status <> com.example.stayfinder.model.Booking.Status.CANCELLED"
+            + " AND b.checkOutDate > :after")
+    List<BookedStay> findActiveEndingAfter(@Param("homestayId") Long homestayId, @Param("after") LocalDate after);
+
+    // Active stays of any of the homestays that overlap [checkIn, checkOut)
+    @Query("SELECT b.homestay.id AS homestayId, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate FROM Booking b"
+            + " WHERE b.homestay.id IN :homestayIds AND b.status <> com.example.stayfinder.model.Booking.Status.CANCELLED"
+            + " AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn")
+    List<BookedStay> findActiveOverlapping(@Param("homestayIds") Collection<Long> homestayIds,
+                                           @Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut);
+
+    interface BookedStay {
+        Long getHomestayId();
+        LocalDate getCheckInDate();
+        LocalDate getCheckOutDate();
+    }
+}
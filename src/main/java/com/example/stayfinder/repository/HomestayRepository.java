@@ -1,16 +1,67 @@
 package com.example.stayfinder.repository;
 
 import com.example.stayfinder.model.Homestay;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HomestayRepository extends JpaRepository<Homestay, Long> {
     List<Homestay> findByLocationContainingIgnoreCase(String location);
 
-    @Query("SELECT h FROM Homestay h WHERE h.location LIKE %:location% AND EXISTS (SELECT 1 FROM h.availableDates ad WHERE ad >= :checkIn AND ad < :checkOut)")
-    List<Homestay> findAvailableByLocationAndDates(@Param("location") String location, @Param("checkIn") java.time.LocalDate checkIn, @Param("checkOut") java.time.LocalDate checkOut);
-}
\ No newline at end of file
+    // Whether there are any homestays at all: stops at the first row instead of counting the table
+    boolean existsByIdNotNull();
+
+    // Keyset pages over (price, id) of the homestays in a location: seek past the cursor instead of counting
+    // OFFSET rows. Availability lives in a binary column, so callers filter the nights themselves.
+    @Query("SELECT h FROM Homestay h WHERE h.location LIKE %:location%"
+            + " AND h.price BETWEEN :minPrice AND :maxPrice AND h.capacity >= :guests"
+            + " AND (h.price > :price OR (h.price = :price AND h.id > :id)) ORDER BY h.price ASC, h.id ASC")
+    List<Homestay> findByLocationPageAfter(@Param("location") String location,
+                                           @Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice, @Param("guests") int guests,
+                                           @Param("price") double price, @Param("id") long id, Limit limit);
+
+    @Query("SELECT h FROM Homestay h WHERE h.location LIKE %:location%"
+            + " AND h.price BETWEEN :minPrice AND :maxPrice AND h.capacity >= :guests"
+            + " AND (h.price < :price OR (h.price = :price AND h.id < :id)) ORDER BY h.price DESC, h.id DESC")
+    List<Homestay> findByLocationPageBefore(@Param("location") String location,
+                                            @Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice, @Param("guests") int guests,
+                                            @Param("price") double price, @Param("id") long id, Limit limit);
+
+    // Everything the detail page shows, so the result can be cached detached from the session
+    @Query("SELECT h FROM Homestay h LEFT JOIN FETCH h.host WHERE h.id = :id")
+    Optional<Homestay> findDetailsById(@Param("id") Long id);
+
+    @Query("SELECT h.location AS location, COUNT(h) AS homestays FROM Homestay h GROUP BY h.location")
+    List<LocationCount> countByLocation();
+
+    interface LocationCount {
+        String getLocation();
+        long getHomestays();
+    }
+
+    // SELECT ... FOR UPDATE on the homestay row; serializes bookings for one homestay across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM Homestay h WHERE h.id = :id")
+    Optional<Homestay> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT h FROM Homestay h WHERE h.latitude BETWEEN :south AND :north AND h.longitude BETWEEN :west AND :east")
+    List<Homestay> findInBox(@Param("south") double south, @Param("west") double west,
+                             @Param("north") double north, @Param("east") double east);
+
+    @Query("SELECT h.id AS id, h.latitude AS latitude, h.longitude AS longitude FROM Homestay h"
+            + " WHERE h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+    List<Coordinates> findAllCoordinates();
+
+    interface Coordinates {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+    }
+}
@@ -1,10 +1,11 @@
 package com.example.stayfinder.security;
 
-import com.example.stayfinder.model.User;
-import com.example.stayfinder.repository.UserRepository;
+import com.example.stayfinder.dto.UserAccount;
+import com.example.stayfinder.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,24 +14,39 @@ import java.util.Collections;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // Cached lookup; the UserDetails is built per call because Spring Security erases its password after login
+        UserAccount account = userService.findAccount(email);
+        if (account == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
 
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority("ROLE_" + account.role().name())
         );
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
+                .username(account.email())
+                .password(account.passwordHash())
                 .authorities(authorities)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Called after a successful login whose stored hash uses an older encoding or a lower cost
+     * than {@code security.password.*} asks for, with the password re-encoded accordingly.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.stayfinder.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,16 +9,38 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Encodes new passwords with {@code security.password.encoder} ("bcrypt" or "pbkdf2"), stored
+     * with an {@code {id}} prefix, and verifies hashes of every supported encoding. Hashes written
+     * before the prefix existed are plain BCrypt. A login whose hash has a different encoding or a
+     * lower BCrypt cost is re-encoded through {@link CustomUserDetailsService#updatePassword}.
+     * Hashing and verification times are recorded by {@link TimedPasswordEncoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.encoder:bcrypt}") String encodingId,
+                                           @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           MeterRegistry meterRegistry) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), "bcrypt", meterRegistry));
+        encoders.put("pbkdf2", new TimedPasswordEncoder(Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8(), "pbkdf2", meterRegistry));
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalArgumentException("Unknown security.password.encoder: " + encodingId);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return encoder;
     }
 
     @Bean
@@ -28,9 +52,11 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/", "/login", "/register", "/search", "/homestays/**").permitAll()
+                .requestMatchers("/", "/login", "/register", "/search", "/homestays/**", "/api/locations/**", "/api/homestays/**").permitAll()
                 .requestMatchers("/book/**").hasRole("USER")
                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
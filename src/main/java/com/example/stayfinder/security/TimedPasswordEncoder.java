@@ -0,0 +1,50 @@
+package com.example.stayfinder.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records how long a password encoder takes to hash and to verify, as the {@code password.encoder}
+ * timer tagged with the algorithm and the operation. With BCrypt this is most of the CPU time of a
+ * login, and the number to watch when changing {@code security.password.bcrypt-strength}.
+ */
+class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    TimedPasswordEncoder(PasswordEncoder delegate, String algorithm, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(algorithm, "encode", meterRegistry);
+        this.matchesTimer = timer(algorithm, "matches", meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            sample.stop(matchesTimer);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(String algorithm, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.encoder")
+                .tag("algorithm", algorithm)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.repository.BookingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous booking confirmation.
+ *
+ * A booking request only checks its dates and puts a {@link Ticket} on a bounded queue, so its
+ * latency stays flat however busy the database or the payment provider are. A fixed pool of
+ * {@code booking.pipeline.workers} threads takes up to {@code booking.pipeline.batch-size} tickets
+ * at a time, runs each through {@link BookingService#createBooking} (availability and conflict
+ * checks, saved as PENDING), charges the accepted ones with a single {@link PaymentGateway} call
+ * and then confirms or cancels them with one update per outcome. The guest follows the ticket on
+ * its status page.
+ *
+ * A submission may carry an idempotency key. Within {@code booking.idempotency.window} the same
+ * user sending the same key again (a double click, a client retry) gets the original ticket back,
+ * without the booking being queued or checked a second time.
+ *
+ * When the queue is full a request is turned away instead of queueing without limit. Tickets are
+ * kept in memory for {@code booking.pipeline.ticket-ttl}, at most {@code booking.pipeline.max-tickets}
+ * of them (the oldest go first). At shutdown each worker finishes the batch it holds, for up to
+ * {@code booking.pipeline.drain-timeout}; bookings still queued are lost. When a batch fails part
+ * way, e.g. its status update or a payment call cut short by the shutdown, its unfinished tickets
+ * are rejected so their status pages stop waiting, and bookings already saved stay PENDING.
+ *
+ * Metrics: {@code bookings.pipeline.queue.depth}, {@code bookings.pipeline.processed} tagged with
+ * the outcome (its rate is the processing rate), {@code bookings.pipeline.rejected.full},
+ * {@code bookings.pipeline.replayed}, {@code bookings.pipeline.batch} per batch and
+ * {@code bookings.pipeline.latency} from submission to outcome.
+ */
+@Service
+public class BookingPipeline {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    // How often an idle worker checks whether the pipeline is stopping
+    private static final long POLL_MILLIS = 200;
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPipeline.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int workers;
+    private final int batchSize;
+    private final Duration drainTimeout;
+    private final BlockingQueue<Ticket> queue;
+    private final Cache<String, Ticket> tickets;
+    // "<owner> <idempotency key>" -> the ticket the first submission got
+    private final Cache<String, Ticket> submissions;
+    private final ExecutorService pool;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean draining;
+
+    private final Map<Ticket.State, Counter> processed = new EnumMap<>(Ticket.State.class);
+    private final Counter rejectedFull;
+    private final Counter replayed;
+    private final Timer batchTimer;
+    private final Timer latency;
+
+    @Autowired
+    public BookingPipeline(@Value("${booking.pipeline.workers:4}") int workers,
+                           @Value("${booking.pipeline.queue-capacity:10000}") int queueCapacity,
+                           @Value("${booking.pipeline.batch-size:32}") int batchSize,
+                           @Value("${booking.pipeline.ticket-ttl:1h}") Duration ticketTtl,
+                           @Value("${booking.pipeline.max-tickets:100000}") long maxTickets,
+                           @Value("${booking.pipeline.drain-timeout:30s}") Duration drainTimeout,
+                           @Value("${booking.idempotency.window:10m}") Duration idempotencyWindow,
+                           @Value("${booking.idempotency.max-entries:100000}") long idempotencyMaxEntries,
+                           MeterRegistry meterRegistry) {
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.drainTimeout = drainTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maxTickets)
+                .expireAfterWrite(ticketTtl)
+                .build();
+        this.submissions = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxEntries)
+                .expireAfterWrite(idempotencyWindow)
+                .build();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "booking-pipeline-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("bookings.pipeline.queue.depth", queue, BlockingQueue::size)
+                .description("Bookings waiting for a worker")
+                .register(meterRegistry);
+        for (Ticket.State state : List.of(Ticket.State.CONFIRMED, Ticket.State.REJECTED, Ticket.State.CANCELLED)) {
+            processed.put(state, Counter.builder("bookings.pipeline.processed")
+                    .tag("outcome", state.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        rejectedFull = Counter.builder("bookings.pipeline.rejected.full")
+                .description("Booking requests turned away because the queue was full")
+                .register(meterRegistry);
+        replayed = Counter.builder("bookings.pipeline.replayed")
+                .description("Repeated submissions answered with the ticket of the first one")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("bookings.pipeline.batch").register(meterRegistry);
+        latency = Timer.builder("bookings.pipeline.latency")
+                .description("Time from submission to confirmation, rejection or cancellation")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            for (int i = 0; i < workers; i++) {
+                pool.execute(this::work);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Interrupting a worker mid-batch would cut its payment call short; let it finish first
+        draining = true;
+        pool.shutdown();
+        if (!pool.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Booking pipeline workers still busy after {}, interrupting them", drainTimeout);
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Booking pipeline stopped with {} bookings still queued", queue.size());
+        }
+    }
+
+    /**
+     * Queue a booking for confirmation.
+     *
+     * @param owner email of the user the ticket belongs to
+     * @throws RuntimeException when the dates are invalid or the queue is full
+     */
+    public Ticket submit(Booking booking, String owner) {
+        return submit(booking, owner, null);
+    }
+
+    /**
+     * Queue a booking for confirmation, or return the ticket of an earlier submission by the same
+     * user with the same {@code idempotencyKey}. A blank key disables deduplication.
+     *
+     * @throws RuntimeException when the dates are invalid, the queue is full, or the key was
+     *                          already used for a different booking
+     */
+    public Ticket submit(Booking booking, String owner, String idempotencyKey) {
+        if (booking.getHomestay() == null || booking.getHomestay().getId() == null) {
+            throw new RuntimeException("Homestay not found");
+        }
+        if (!booking.getCheckOutDate().isAfter(booking.getCheckInDate())) {
+            throw new RuntimeException("Check-out date must be after check-in date");
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return enqueue(booking, owner);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency key is too long");
+        }
+        // Atomic per key, so concurrent duplicates wait for the first and get its ticket; a failed
+        // enqueue throws and leaves nothing behind
+        Ticket ticket = submissions.get(owner + " " + idempotencyKey, key -> enqueue(booking, owner));
+        if (ticket.booking != booking) {
+            if (!ticket.isFor(booking)) {
+                throw new RuntimeException("This booking request was already submitted with different details");
+            }
+            replayed.increment();
+        }
+        return ticket;
+    }
+
+    private Ticket enqueue(Booking booking, String owner) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), owner, booking);
+        tickets.put(ticket.getId(), ticket);
+        if (!queue.offer(ticket)) {
+            tickets.invalidate(ticket.getId());
+            rejectedFull.increment();
+            throw new RuntimeException("We are receiving a lot of bookings right now, please try again in a moment");
+        }
+        return ticket;
+    }
+
+    /**
+     * The ticket with the given id, or null when it is unknown or has expired.
+     */
+    public Ticket find(String ticketId) {
+        return ticketId != null ? tickets.getIfPresent(ticketId) : null;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void work() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (!draining && !Thread.currentThread().isInterrupted()) {
+            Ticket first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                batchTimer.record(() -> process(batch));
+            } catch (RuntimeException e) {
+                log.error("Booking batch of {} failed", batch.size(), e);
+                // Saved bookings may be left PENDING; the guest should look before booking again
+                for (Ticket ticket : batch) {
+                    if (!ticket.isDone()) {
+                        finish(ticket, Ticket.State.REJECTED, "We could not confirm this booking. Check My Bookings before trying again.");
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        List<Ticket> accepted = new ArrayList<>();
+        for (Ticket ticket : batch) {
+            try {
+                Booking saved = bookingService.createBooking(ticket.booking);
+                ticket.bookingId = saved.getId();
+                ticket.state = Ticket.State.PENDING;
+                accepted.add(ticket);
+            } catch (RuntimeException e) {
+                finish(ticket, Ticket.State.REJECTED, e.getMessage());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Set<Long> approved;
+        try {
+            approved = paymentGateway.authorize(accepted.stream().map(ticket -> ticket.booking).toList());
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cut short by a forced shutdown, not declined: leave the bookings PENDING
+                throw e;
+            }
+            log.error("Payment failed for {} bookings", accepted.size(), e);
+            approved = Set.of();
+        }
+        List<Ticket> confirmed = new ArrayList<>();
+        List<Ticket> declined = new ArrayList<>();
+        for (Ticket ticket : accepted) {
+            (approved.contains(ticket.bookingId) ? confirmed : declined).add(ticket);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!confirmed.isEmpty()) {
+                bookingRepository.updateStatus(bookingIds(confirmed), Booking.Status.CONFIRMED);
+            }
+            if (!declined.isEmpty()) {
+                bookingRepository.updateStatus(bookingIds(declined), Booking.Status.CANCELLED);
+            }
+        });
+
+        for (Ticket ticket : declined) {
+            bookingService.releaseCancelled(ticket.getHomestayId(), ticket.getCheckInDate(), ticket.getCheckOutDate());
+            finish(ticket, Ticket.State.CANCELLED, "Payment was declined");
+        }
+        for (Ticket ticket : confirmed) {
+            finish(ticket, Ticket.State.CONFIRMED, null);
+        }
+    }
+
+    private void finish(Ticket ticket, Ticket.State state, String message) {
+        ticket.message = message;
+        ticket.state = state;
+        processed.get(state).increment();
+        latency.record(System.nanoTime() - ticket.submittedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static List<Long> bookingIds(List<Ticket> tickets) {
+        return tickets.stream().map(ticket -> ticket.bookingId).toList();
+    }
+
+    /**
+     * A booking on its way through the pipeline.
+     */
+    public static final class Ticket {
+
+        public enum State {
+            QUEUED, PENDING, CONFIRMED, REJECTED, CANCELLED;
+
+            public boolean isDone() {
+                return this == CONFIRMED || this == REJECTED || this == CANCELLED;
+            }
+        }
+
+        private final String id;
+        private final String owner;
+        private final Booking booking;
+        private final long submittedNanos = System.nanoTime();
+
+        // Written by one worker, read by status requests
+        private volatile State state = State.QUEUED;
+        private volatile Long bookingId;
+        private volatile String message;
+
+        Ticket(String id, String owner, Booking booking) {
+            this.id = id;
+            this.owner = owner;
+            this.booking = booking;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public boolean isDone() {
+            return state.isDone();
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        boolean isFor(Booking other) {
+            return other.getHomestay().getId().equals(getHomestayId())
+                    && other.getCheckInDate().equals(getCheckInDate())
+                    && other.getCheckOutDate().equals(getCheckOutDate());
+        }
+
+        public Long getHomestayId() {
+            return booking.getHomestay().getId();
+        }
+
+        public LocalDate getCheckInDate() {
+            return booking.getCheckInDate();
+        }
+
+        public LocalDate getCheckOutDate() {
+            return booking.getCheckOutDate();
+        }
+    }
+}
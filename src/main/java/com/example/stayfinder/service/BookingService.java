@@ -1,14 +1,25 @@
 package com.example.stayfinder.service;
 
+import com.example.stayfinder.dto.BookingView;
+import com.example.stayfinder.index.BookingConflictIndex;
+import com.example.stayfinder.model.AvailabilityCalendar;
 import com.example.stayfinder.model.Booking;
 import com.example.stayfinder.model.Homestay;
 import com.example.stayfinder.model.User;
 import com.example.stayfinder.repository.BookingRepository;
+import com.example.stayfinder.repository.HomestayRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
@@ -19,36 +30,120 @@ public class BookingService {
     @Autowired
     private HomestayService homestayService;
 
+    @Autowired
+    private BookingConflictIndex bookingConflictIndex;
+
+    @Autowired
+    private HomestayRepository homestayRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // "striped" (in-process locks, single instance) or "pessimistic" (row lock, multi-instance safe)
+    @Value("${booking.locking:striped}")
+    private String lockingMode;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Lock[] stripes = new Lock[LOCK_STRIPES];
+
+    public BookingService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Validate and persist a new booking. Stays are half-open: the check-out night is not occupied,
+     * so a booking may start on the day another one checks out.
+     *
+     * The check-then-save runs under a lock scoped to the homestay, so bookings for different
+     * homestays proceed in parallel. With {@code booking.locking=striped} (default) the lock is one
+     * of {@link #LOCK_STRIPES} in-process locks and conflicts are answered by the in-memory index.
+     * With {@code booking.locking=pessimistic} the homestay row is locked with SELECT ... FOR UPDATE
+     * and conflicts are checked against the database, which is safe across several instances.
+     */
     public Booking createBooking(@Valid Booking booking) {
         // Validate dates: checkOut > checkIn
-        if (booking.getCheckOutDate().isBefore(booking.getCheckInDate())) {
+        if (!booking.getCheckOutDate().isAfter(booking.getCheckInDate())) {
             throw new RuntimeException("Check-out date must be after check-in date");
         }
 
-        // Check availability: no overlapping bookings
-        Homestay homestay = homestayService.findById(booking.getHomestay().getId());
-        List<LocalDate> availableDates = homestay.getAvailableDates();
+        Long homestayId = booking.getHomestay().getId();
         LocalDate checkIn = booking.getCheckInDate();
         LocalDate checkOut = booking.getCheckOutDate();
+        boolean pessimistic = "pessimistic".equalsIgnoreCase(lockingMode);
 
-        // Simple check if dates are available (for MVP, assume daily; in real, check against bookings)
-        for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
-            if (!availableDates.contains(date)) {
-                throw new RuntimeException("Homestay not available on " + date);
-            }
+        Lock lock = stripeOf(homestayId);
+        lock.lock();
+        try {
+            Booking saved = transactionTemplate.execute(status -> {
+                Homestay homestay = pessimistic
+                        ? homestayRepository.findByIdForUpdate(homestayId).orElse(null)
+                        : homestayRepository.findById(homestayId).orElse(null);
+                if (homestay == null) {
+                    throw new RuntimeException("Homestay not found");
+                }
+
+                // Every night of the stay must be listed as available
+                AvailabilityCalendar availableNights = homestay.getAvailability();
+                if (!availableNights.containsAll(checkIn, checkOut)) {
+                    for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+                        if (!availableNights.contains(date)) {
+                            throw new RuntimeException("Homestay not available on " + date);
+                        }
+                    }
+                }
+
+                // Check for overlapping bookings
+                Timer.Sample conflictCheck = Timer.start();
+                boolean overlapping = pessimistic
+                        ? bookingRepository.existsOverlapping(homestayId, checkIn, checkOut)
+                        : bookingConflictIndex.overlaps(homestayId, checkIn, checkOut);
+                conflictCheck.stop(Timer.builder("bookings.conflict.check")
+                        .description("Time to check a stay against existing bookings")
+                        .tag("locking", pessimistic ? "pessimistic" : "striped")
+                        .register(meterRegistry));
+                if (overlapping) {
+                    throw new RuntimeException("Homestay already booked for overlapping dates");
+                }
+
+                booking.setHomestay(homestay);
+                booking.setStatus(Booking.Status.PENDING);
+                return bookingRepository.save(booking);
+            });
+
+            // Only publish the booking once it has committed
+            bookingConflictIndex.add(homestayId, checkIn, checkOut);
+            homestayService.recordBooking(homestayId, checkIn, checkOut);
+            return saved;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        // Check for overlapping bookings
-        List<Booking> existingBookings = bookingRepository.findByHomestayId(homestay.getId());
-        for (Booking existing : existingBookings) {
-            if (booking.getId() != existing.getId() && // not self
-                !(checkOut.isBefore(existing.getCheckInDate()) || checkIn.isAfter(existing.getCheckOutDate()))) {
-                throw new RuntimeException("Homestay already booked for overlapping dates");
-            }
+    /**
+     * Give the nights of a booking that was just cancelled back to search and to the conflict
+     * index. Runs under the homestay's lock, so the conflict index is not reloaded while
+     * {@link #createBooking} is checking or adding a stay for the same homestay.
+     */
+    public void releaseCancelled(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        Lock lock = stripeOf(homestayId);
+        lock.lock();
+        try {
+            // Reloaded from the database, where the booking is now cancelled
+            bookingConflictIndex.invalidate(homestayId);
+            homestayService.releaseBooking(homestayId, checkIn, checkOut);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        booking.setStatus(Booking.Status.PENDING);
-        return bookingRepository.save(booking);
+    private Lock stripeOf(Long homestayId) {
+        return stripes[Math.floorMod(homestayId.hashCode(), LOCK_STRIPES)];
     }
 
     /**
@@ -70,10 +165,30 @@ public class BookingService {
 
         Booking booking = new Booking(user, homestay, checkIn, checkOut, Booking.Status.CONFIRMED);
         // Persist directly for demo purposes (bypass availability/payment)
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        Lock lock = stripeOf(homestay.getId());
+        lock.lock();
+        try {
+            bookingConflictIndex.add(homestay.getId(), checkIn, checkOut);
+            homestayService.recordBooking(homestay.getId(), checkIn, checkOut);
+        } finally {
+            lock.unlock();
+        }
+        return saved;
     }
 
-    public List<Booking> getBookingsByUser(User user) {
-        return bookingRepository.findByUserId(user.getId());
+    /**
+     * A user's bookings with their homestay summaries, newest stay first, in a single query.
+     */
+    public List<BookingView> getBookingsByUser(User user) {
+        return bookingRepository.findViewsByUserId(user.getId());
+    }
+
+    /**
+     * As {@link #getBookingsByUser(User)}, read while the stream is consumed. Must be consumed and
+     * closed inside a transaction; used for rendering the page as rows arrive ({@code StreamingViews}).
+     */
+    public Stream<BookingView> streamBookingsByUser(User user) {
+        return bookingRepository.streamViewsByUserId(user.getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,489 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.dto.ImportReport;
+import com.example.stayfinder.index.AvailabilityIndex;
+import com.example.stayfinder.index.GeoIndex;
+import com.example.stayfinder.index.SearchResultCache;
+import com.example.stayfinder.index.TextSearchIndex;
+import com.example.stayfinder.model.AvailabilityCalendar;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk import of homestay listings from partner feeds.
+ *
+ * Feeds are read one row at a time: JSON with Jackson's streaming parser (a top-level array of
+ * objects shaped like {@code data/demo-homestays.json}), CSV line by line with the header
+ * {@code hostEmail,hostName,location,description,price,availableDates} (plus optional
+ * {@code capacity,latitude,longitude} columns) and dates separated by {@code ;}. Rows are written with
+ * plain JDBC batches, one transaction per batch, because {@code IDENTITY} ids stop Hibernate from
+ * batching inserts. Hosts are looked up once per email
+ * and kept in memory for the rest of the import; new hosts share one pre-hashed password. Rows
+ * without a host email are listed under the community host ({@value #DEFAULT_HOST_EMAIL}).
+ *
+ * Search structures are rebuilt once at the end rather than updated per row. An import that fails
+ * part way keeps the batches already committed, so the rebuild also runs then, before the error
+ * is passed on.
+ *
+ * Created on first use (an admin import, {@code --import} or seeding an empty database), not at
+ * startup: most instances never import anything.
+ */
+@Service
+@Lazy
+public class HomestayImportService {
+
+    static final String DEFAULT_HOST_PASSWORD = "hostpass";
+    static final String DEFAULT_HOST_EMAIL = "host@example.com";
+    static final String DEFAULT_HOST_NAME = "Community Host";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private LocationSuggestService locationSuggestService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Value("${importer.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Import a {@code .json} or {@code .csv} file.
+     */
+    public ImportReport importFile(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return importStream(in, path.getFileName().toString());
+        }
+    }
+
+    /**
+     * Import a feed whose format is taken from the extension of {@code fileName}.
+     */
+    public ImportReport importStream(InputStream in, String fileName) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return importCsv(in);
+        }
+        if (name.endsWith(".json")) {
+            return importJson(in);
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + fileName + " (expected .json or .csv)");
+    }
+
+    public ImportReport importJson(InputStream in) throws IOException {
+        return importJson(in, null);
+    }
+
+    /**
+     * Import a JSON feed whose new hosts get {@code hostPasswordHash} (already encoded, e.g. a
+     * {@code {bcrypt}} hash of {@value #DEFAULT_HOST_PASSWORD}) instead of a hash computed here.
+     * Used for demo data, so seeding spends no time hashing.
+     */
+    public ImportReport importJson(InputStream in, String hostPasswordHash) throws IOException {
+        return run(hostPasswordHash, writer -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Expected a JSON array of homestays");
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    writer.add(readJsonRow(parser));
+                }
+            }
+        });
+    }
+
+    public ImportReport importCsv(InputStream in) throws IOException {
+        return run(null, writer -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String header = reader.readLine();
+                if (header == null) {
+                    return;
+                }
+                Map<String, Integer> columns = new HashMap<>();
+                List<String> names = splitCsv(header.replace("\uFEFF", ""));
+                for (int i = 0; i < names.size(); i++) {
+                    columns.put(names.get(i).trim(), i);
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        writer.add(readCsvRow(splitCsv(line), columns));
+                    }
+                }
+            }
+        });
+    }
+
+    private ImportReport run(String hostPasswordHash, RowReader rows) throws IOException {
+        long start = System.currentTimeMillis();
+        try (BatchWriter writer = new BatchWriter(hostPasswordHash)) {
+            try {
+                rows.readInto(writer);
+                writer.flush();
+            } catch (IOException e) {
+                throw new IOException(stoppedAfter(writer, e), e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(stoppedAfter(writer, e), e);
+            } finally {
+                // Committed batches stay even when a later one fails; make them searchable either way
+                if (writer.imported > 0) {
+                    rebuildSearch();
+                }
+            }
+            ImportReport report = new ImportReport(writer.imported, writer.skipped, writer.hostsCreated,
+                    System.currentTimeMillis() - start);
+            System.out.println(report);
+            return report;
+        }
+    }
+
+    // The failure with the number of homestays committed before it, which stay imported
+    private static String stoppedAfter(BatchWriter writer, Exception e) {
+        return "Import stopped after " + writer.imported + " homestays: " + e.getMessage();
+    }
+
+    private void rebuildSearch() {
+        availabilityIndex.rebuild();
+        searchResultCache.invalidateAll();
+        locationSuggestService.rebuild();
+        textSearchIndex.rebuild();
+        geoIndex.rebuild();
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        void readInto(BatchWriter writer) throws IOException;
+    }
+
+    private static Row readJsonRow(JsonParser parser) throws IOException {
+        Row row = new Row();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "hostEmail" -> row.hostEmail = parser.getValueAsString();
+                case "hostName" -> row.hostName = parser.getValueAsString();
+                case "location" -> row.location = parser.getValueAsString();
+                case "description" -> row.description = parser.getValueAsString();
+                case "price" -> row.price = value.isNumeric() ? parser.getDoubleValue() : parseDouble(parser.getValueAsString());
+                case "capacity" -> row.capacity = value.isNumeric() ? parser.getIntValue() : parseInt(parser.getValueAsString());
+                case "latitude" -> row.latitude = value.isNumeric() ? parser.getDoubleValue() : parseDouble(parser.getValueAsString());
+                case "longitude" -> row.longitude = value.isNumeric() ? parser.getDoubleValue() : parseDouble(parser.getValueAsString());
+                case "availableDates" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            row.addDate(parser.getValueAsString());
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return row;
+    }
+
+    private static Row readCsvRow(List<String> cells, Map<String, Integer> columns) {
+        Row row = new Row();
+        row.hostEmail = cell(cells, columns, "hostEmail");
+        row.hostName = cell(cells, columns, "hostName");
+        row.location = cell(cells, columns, "location");
+        row.description = cell(cells, columns, "description");
+        row.price = parseDouble(cell(cells, columns, "price"));
+        row.capacity = parseInt(cell(cells, columns, "capacity"));
+        row.latitude = parseDouble(cell(cells, columns, "latitude"));
+        row.longitude = parseDouble(cell(cells, columns, "longitude"));
+        String dates = cell(cells, columns, "availableDates");
+        if (dates != null) {
+            for (String date : dates.split(";")) {
+                row.addDate(date.trim());
+            }
+        }
+        return row;
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Splits one CSV line; fields may be quoted with "" escaping a quote inside them
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value == null ? null : Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Row {
+        String hostEmail;
+        String hostName;
+        String location;
+        String description;
+        Double price;
+        Integer capacity;
+        Double latitude;
+        Double longitude;
+        final AvailabilityCalendar availability = new AvailabilityCalendar();
+
+        void addDate(String value) {
+            try {
+                availability.add(LocalDate.parse(value));
+            } catch (Exception ex) {
+                // ignore malformed dates
+            }
+        }
+
+        boolean isValid() {
+            return location != null && description != null && price != null;
+        }
+    }
+
+    /**
+     * Buffers rows and writes them in JDBC batches on a single connection.
+     */
+    private final class BatchWriter implements AutoCloseable {
+
+        private final Connection connection;
+        private final List<Row> pending = new ArrayList<>(batchSize);
+        // email -> user id, for every host seen during this import
+        private final Map<String, Long> hostIds = new HashMap<>();
+        private String hostPasswordHash;
+
+        long imported;
+        long skipped;
+        int hostsCreated;
+
+        BatchWriter(String hostPasswordHash) {
+            this.hostPasswordHash = hostPasswordHash;
+            try {
+                connection = dataSource.getConnection();
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new RuntimeException("Could not open a connection for import", e);
+            }
+        }
+
+        void add(Row row) {
+            if (!row.isValid()) {
+                skipped++;
+                return;
+            }
+            // homestays.host_id is NOT NULL
+            if (row.hostEmail == null) {
+                row.hostEmail = DEFAULT_HOST_EMAIL;
+                row.hostName = DEFAULT_HOST_NAME;
+            }
+            pending.add(row);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                resolveHosts();
+                insertHomestays();
+                connection.commit();
+                imported += pending.size();
+                pending.clear();
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ignored) {
+                    // the original failure is more useful
+                }
+                throw new RuntimeException("Import failed after " + imported + " homestays: " + e.getMessage(), e);
+            }
+        }
+
+        private void resolveHosts() throws SQLException {
+            Map<String, String> unknown = new LinkedHashMap<>();
+            for (Row row : pending) {
+                if (!hostIds.containsKey(row.hostEmail)) {
+                    unknown.putIfAbsent(row.hostEmail, row.hostName != null ? row.hostName : "Host");
+                }
+            }
+            if (unknown.isEmpty()) {
+                return;
+            }
+            String placeholders = String.join(",", Collections.nCopies(unknown.size(), "?"));
+            try (PreparedStatement select = connection.prepareStatement("SELECT id, email FROM users WHERE email IN (" + placeholders + ")")) {
+                int i = 1;
+                for (String email : unknown.keySet()) {
+                    select.setString(i++, email);
+                }
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        hostIds.put(rs.getString(2), rs.getLong(1));
+                        unknown.remove(rs.getString(2));
+                    }
+                }
+            }
+            if (unknown.isEmpty()) {
+                return;
+            }
+            if (hostPasswordHash == null) {
+                // Hashing is deliberately slow; do it once for every host created by this import
+                hostPasswordHash = passwordEncoder.encode(DEFAULT_HOST_PASSWORD);
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO users (email, password, name, role) VALUES (?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                for (Map.Entry<String, String> host : unknown.entrySet()) {
+                    insert.setString(1, host.getKey());
+                    insert.setString(2, hostPasswordHash);
+                    insert.setString(3, host.getValue());
+                    insert.setString(4, User.Role.HOST.name());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Long> keys = generatedKeys(insert, unknown.size());
+                int i = 0;
+                for (String email : unknown.keySet()) {
+                    hostIds.put(email, keys.get(i++));
+                }
+                hostsCreated += unknown.size();
+            }
+        }
+
+        private void insertHomestays() throws SQLException {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO homestays (host_id, location, description, price, capacity, latitude, longitude, availability)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (Row row : pending) {
+                    insert.setLong(1, hostIds.get(row.hostEmail));
+                    insert.setString(2, row.location);
+                    insert.setString(3, row.description);
+                    insert.setDouble(4, row.price);
+                    insert.setInt(5, row.capacity != null && row.capacity > 0 ? row.capacity : Homestay.DEFAULT_CAPACITY);
+                    // Half a coordinate is no position at all
+                    if (row.latitude != null && row.longitude != null) {
+                        insert.setDouble(6, row.latitude);
+                        insert.setDouble(7, row.longitude);
+                    } else {
+                        insert.setNull(6, Types.DOUBLE);
+                        insert.setNull(7, Types.DOUBLE);
+                    }
+                    insert.setBytes(8, row.availability.toBytes());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        private List<Long> generatedKeys(PreparedStatement statement, int expected) throws SQLException {
+            List<Long> keys = new ArrayList<>(expected);
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                while (rs.next()) {
+                    keys.add(rs.getLong(1));
+                }
+            }
+            if (keys.size() != expected) {
+                throw new SQLException("Expected " + expected + " generated keys but the driver returned " + keys.size());
+            }
+            return keys;
+        }
+
+        @Override
+        public void close() {
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close import connection: " + e.getMessage());
+            }
+        }
+    }
+}
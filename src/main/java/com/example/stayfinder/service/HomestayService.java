@@ -1,11 +1,40 @@
 package com.example.stayfinder.service;
 
+import com.example.stayfinder.config.CacheConfig;
+import com.example.stayfinder.dto.HomestayDetails;
+import com.example.stayfinder.dto.NearbyHomestay;
+import com.example.stayfinder.dto.SearchCursor;
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.dto.SearchPage;
+import com.example.stayfinder.index.AvailabilityIndex;
+import com.example.stayfinder.index.GeoIndex;
+import com.example.stayfinder.index.SearchResultCache;
+import com.example.stayfinder.index.TextSearchIndex;
+import com.example.stayfinder.model.AvailabilityCalendar;
 import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.BookingRepository;
 import com.example.stayfinder.repository.HomestayRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
 
 @Service
 public class HomestayService {
@@ -13,6 +42,51 @@ public class HomestayService {
     @Autowired
     private HomestayRepository homestayRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private LocationSuggestService locationSuggestService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // search kind -> its search.requests timer
+    private final Map<String, Timer> searchTimers = new ConcurrentHashMap<>();
+
+    public static final int DEFAULT_PAGE_SIZE = 12;
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final double MAX_RADIUS_KM = 500;
+
+    // Distinguishes search versions across restarts, when the index counter starts over
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    // Rows read per query when the database fallback filters a location's homestays by date
+    private static final int DATABASE_SCAN_CHUNK = 200;
+
+    // Ranked text matches checked against the dates before a text search gives up filling its page
+    private static final int TEXT_SEARCH_CANDIDATES = 1000;
+
+    // Set to false to answer searches with the JPA query instead of the in-memory index
+    @Value("${search.availability-index.enabled:true}")
+    private boolean availabilityIndexEnabled;
+
+    // Set to false to run every search instead of reusing cached result ids
+    @Value("${search.result-cache.enabled:true}")
+    private boolean resultCacheEnabled;
+
     public List<Homestay> findAll() {
         return homestayRepository.findAll();
     }
@@ -22,14 +96,367 @@ public class HomestayService {
     }
 
     public List<Homestay> findAvailableByLocationAndDates(String location, LocalDate checkIn, LocalDate checkOut) {
-        return homestayRepository.findAvailableByLocationAndDates(location, checkIn, checkOut);
+        return timed("location", () -> cached(SearchResultCache.Key.of(location, checkIn, checkOut),
+                () -> searchAvailable(location, checkIn, checkOut)));
+    }
+
+    private List<Homestay> searchAvailable(String location, LocalDate checkIn, LocalDate checkOut) {
+        if (availabilityIndexEnabled && availabilityIndex.isReady()) {
+            return availabilityIndex.findAvailable(location, checkIn, checkOut);
+        }
+        List<Homestay> available = availableOnly(homestayRepository.findByLocationContainingIgnoreCase(location), checkIn, checkOut);
+        available.sort(Comparator.comparing(Homestay::getId));
+        return available;
+    }
+
+    /**
+     * A page of available homestays ordered by price then id.
+     *
+     * @param after  token of the last homestay on the previous page, for the next page
+     * @param before token of the first homestay on the current page, for the previous page
+     * @param size   requested page size, capped at {@link #MAX_PAGE_SIZE}
+     */
+    public SearchPage<Homestay> searchPage(String location, LocalDate checkIn, LocalDate checkOut,
+                                           String after, String before, int size) {
+        return searchPage(location, checkIn, checkOut, after, before, size, SearchFilter.NONE);
+    }
+
+    /**
+     * A page of available homestays the filter accepts, ordered by price then id in the filter's
+     * direction. The price range and guest count are applied while reading the index or the
+     * database, so only homestays that end up on the page are loaded.
+     */
+    public SearchPage<Homestay> searchPage(String location, LocalDate checkIn, LocalDate checkOut,
+                                           String after, String before, int size, SearchFilter filter) {
+        return timed("page", () -> readPage(location, checkIn, checkOut, after, before, size, filter));
+    }
+
+    private SearchPage<Homestay> readPage(String location, LocalDate checkIn, LocalDate checkOut,
+                                          String after, String before, int size, SearchFilter filter) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SearchCursor afterCursor = SearchCursor.decode(after);
+        SearchCursor beforeCursor = afterCursor == null ? SearchCursor.decode(before) : null;
+        boolean forward = beforeCursor == null;
+        SearchCursor cursor = forward ? afterCursor : beforeCursor;
+        // Moving forward through a descending page order means reading prices downwards
+        boolean ascending = forward != filter.descending();
+
+        // Read one extra row to learn whether a further page exists in the reading direction
+        List<Homestay> rows = findAvailablePage(location, checkIn, checkOut, cursor, ascending, pageSize + 1, filter);
+        boolean more = rows.size() > pageSize;
+        List<Homestay> items = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (!forward) {
+            Collections.reverse(items);
+        }
+        if (items.isEmpty()) {
+            return new SearchPage<>(items, null, null, pageSize);
+        }
+        boolean hasNext = forward ? more : true;
+        boolean hasPrev = forward ? cursor != null : more;
+        return new SearchPage<>(items,
+                hasNext ? SearchCursor.of(items.get(items.size() - 1)).encode() : null,
+                hasPrev ? SearchCursor.of(items.get(0)).encode() : null,
+                pageSize);
+    }
+
+    private List<Homestay> findAvailablePage(String location, LocalDate checkIn, LocalDate checkOut,
+                                             SearchCursor cursor, boolean ascending, int limit, SearchFilter filter) {
+        return cached(SearchResultCache.Key.page(location, checkIn, checkOut, cursor, ascending, limit, filter),
+                () -> searchAvailablePage(location, checkIn, checkOut, cursor, ascending, limit, filter));
+    }
+
+    private List<Homestay> searchAvailablePage(String location, LocalDate checkIn, LocalDate checkOut,
+                                               SearchCursor cursor, boolean ascending, int limit, SearchFilter filter) {
+        if (availabilityIndexEnabled && availabilityIndex.isReady()) {
+            return availabilityIndex.findAvailablePage(location, checkIn, checkOut, cursor, ascending, limit, filter);
+        }
+        // Walk the location's matching homestays in (price, id) order, keeping the available ones until the page is full
+        List<Homestay> result = new ArrayList<>(limit);
+        SearchCursor from = cursor != null ? cursor
+                : ascending ? new SearchCursor(-Double.MAX_VALUE, Long.MIN_VALUE) : new SearchCursor(Double.MAX_VALUE, Long.MAX_VALUE);
+        int chunk = Math.max(limit, DATABASE_SCAN_CHUNK);
+        while (result.size() < limit) {
+            List<Homestay> rows = ascending
+                    ? homestayRepository.findByLocationPageAfter(location, filter.lowestPrice(), filter.highestPrice(),
+                            filter.minCapacity(), from.price(), from.id(), Limit.of(chunk))
+                    : homestayRepository.findByLocationPageBefore(location, filter.lowestPrice(), filter.highestPrice(),
+                            filter.minCapacity(), from.price(), from.id(), Limit.of(chunk));
+            for (Homestay homestay : availableOnly(rows, checkIn, checkOut)) {
+                if (result.size() < limit) {
+                    result.add(homestay);
+                }
+            }
+            if (rows.size() < chunk) {
+                break;
+            }
+            from = SearchCursor.of(rows.get(rows.size() - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Homestays whose location or description matches {@code query}, best match first, that have a
+     * free night in {@code [checkIn, checkOut)}. Unlike the location search this understands
+     * spelling variants ("Vizag") and words from the description; see {@link TextSearchIndex}.
+     */
+    public List<Homestay> searchText(String query, LocalDate checkIn, LocalDate checkOut, int limit) {
+        return searchText(query, checkIn, checkOut, limit, SearchFilter.NONE);
+    }
+
+    /**
+     * As {@link #searchText(String, LocalDate, LocalDate, int)}, keeping relevance order but only
+     * homestays within the filter's price range and guest count.
+     */
+    public List<Homestay> searchText(String query, LocalDate checkIn, LocalDate checkOut, int limit, SearchFilter filter) {
+        return timed("text", () -> rankText(query, checkIn, checkOut, limit, filter));
+    }
+
+    private List<Homestay> rankText(String query, LocalDate checkIn, LocalDate checkOut, int limit, SearchFilter filter) {
+        int capped = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Long> ranked = textSearchIndex.search(query, TEXT_SEARCH_CANDIDATES).stream()
+                .map(TextSearchIndex.Hit::homestayId)
+                .toList();
+        if (availabilityIndexEnabled && availabilityIndex.isReady()) {
+            return availabilityIndex.findByIds(ranked.stream()
+                    .filter(id -> availabilityIndex.isAvailable(id, checkIn, checkOut, filter))
+                    .limit(capped)
+                    .toList());
+        }
+        List<Homestay> candidates = findAllInOrder(ranked).stream().filter(filter::accepts).toList();
+        List<Homestay> available = availableOnly(candidates, checkIn, checkOut);
+        return available.size() > capped ? new ArrayList<>(available.subList(0, capped)) : available;
+    }
+
+    /**
+     * Homestays within {@code radiusKm} of a point that have a free night in {@code [checkIn, checkOut)},
+     * nearest first.
+     */
+    public List<NearbyHomestay> findNearby(double latitude, double longitude, double radiusKm,
+                                           LocalDate checkIn, LocalDate checkOut, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("Radius must be greater than 0 and at most " + MAX_RADIUS_KM + " km");
+        }
+        return timed("nearby", () -> nearby(latitude, longitude, radiusKm, checkIn, checkOut, limit));
+    }
+
+    private List<NearbyHomestay> nearby(double latitude, double longitude, double radiusKm,
+                                        LocalDate checkIn, LocalDate checkOut, int limit) {
+        if (geoIndex.isReady()) {
+            return availableHits((k, accept) -> geoIndex.nearby(latitude, longitude, radiusKm, k, accept), checkIn, checkOut, limit);
+        }
+        List<GeoIndex.Hit> hits = new ArrayList<>();
+        Map<Long, Homestay> byId = new HashMap<>();
+        GeoIndex.Box box = GeoIndex.Box.around(latitude, longitude, radiusKm);
+        for (Homestay homestay : homestayRepository.findInBox(box.south(), box.west(), box.north(), box.east())) {
+            double distance = GeoIndex.distanceKm(latitude, longitude, homestay.getLatitude(), homestay.getLongitude());
+            if (distance <= radiusKm) {
+                hits.add(new GeoIndex.Hit(homestay.getId(), distance));
+                byId.put(homestay.getId(), homestay);
+            }
+        }
+        return availableRows(hits, byId, checkIn, checkOut, limit);
     }
 
+    /**
+     * Homestays inside a latitude/longitude box that have a free night in {@code [checkIn, checkOut)},
+     * nearest to the centre of the box first.
+     */
+    public List<NearbyHomestay> findWithin(GeoIndex.Box box, LocalDate checkIn, LocalDate checkOut, int limit) {
+        return timed("within", () -> within(box, checkIn, checkOut, limit));
+    }
+
+    private List<NearbyHomestay> within(GeoIndex.Box box, LocalDate checkIn, LocalDate checkOut, int limit) {
+        if (geoIndex.isReady()) {
+            return availableHits((k, accept) -> geoIndex.within(box, k, accept), checkIn, checkOut, limit);
+        }
+        List<GeoIndex.Hit> hits = new ArrayList<>();
+        Map<Long, Homestay> byId = new HashMap<>();
+        for (Homestay homestay : homestayRepository.findInBox(box.south(), box.west(), box.north(), box.east())) {
+            hits.add(new GeoIndex.Hit(homestay.getId(), GeoIndex.distanceKm(box.centreLatitude(), box.centreLongitude(),
+                    homestay.getLatitude(), homestay.getLongitude())));
+            byId.put(homestay.getId(), homestay);
+        }
+        return availableRows(hits, byId, checkIn, checkOut, limit);
+    }
+
+    // A GeoIndex query: its k nearest hits that pass accept, nearest first
+    private interface NearestHits {
+        List<GeoIndex.Hit> find(int k, LongPredicate accept);
+    }
+
+    // Keep the first available hits, in order, and attach their homestays
+    private List<NearbyHomestay> availableHits(NearestHits nearest, LocalDate checkIn, LocalDate checkOut, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (availabilityIndexEnabled && availabilityIndex.isReady()) {
+            Map<Long, Double> distances = new LinkedHashMap<>();
+            for (GeoIndex.Hit hit : nearest.find(capped, id -> availabilityIndex.isAvailable(id, checkIn, checkOut))) {
+                distances.put(hit.homestayId(), hit.distanceKm());
+            }
+            return availabilityIndex.findByIds(new ArrayList<>(distances.keySet())).stream()
+                    .map(homestay -> NearbyHomestay.of(homestay, distances.get(homestay.getId())))
+                    .toList();
+        }
+        // Availability needs the rows: load the nearest hits, twice as many each round, until enough are free
+        List<NearbyHomestay> result = new ArrayList<>(capped);
+        Set<Long> loaded = new HashSet<>();
+        for (int k = capped; ; k = k > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : k * 2) {
+            List<GeoIndex.Hit> hits = nearest.find(k, id -> true);
+            List<GeoIndex.Hit> unseen = new ArrayList<>();
+            for (GeoIndex.Hit hit : hits) {
+                if (loaded.add(hit.homestayId())) {
+                    unseen.add(hit);
+                }
+            }
+            Map<Long, Homestay> byId = new HashMap<>();
+            for (Homestay homestay : homestayRepository.findAllById(unseen.stream().map(GeoIndex.Hit::homestayId).toList())) {
+                byId.put(homestay.getId(), homestay);
+            }
+            result.addAll(availableRows(unseen, byId, checkIn, checkOut, capped - result.size()));
+            if (result.size() >= capped || hits.size() < k) {
+                return result;
+            }
+        }
+    }
+
+    private List<NearbyHomestay> availableRows(List<GeoIndex.Hit> hits, Map<Long, Homestay> byId,
+                                               LocalDate checkIn, LocalDate checkOut, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        hits.sort(Comparator.comparingDouble(GeoIndex.Hit::distanceKm).thenComparingLong(GeoIndex.Hit::homestayId));
+        List<Homestay> ordered = new ArrayList<>(hits.size());
+        Map<Long, Double> distances = new HashMap<>();
+        for (GeoIndex.Hit hit : hits) {
+            Homestay homestay = byId.get(hit.homestayId());
+            if (homestay != null) {
+                ordered.add(homestay);
+                distances.put(hit.homestayId(), hit.distanceKm());
+            }
+        }
+        List<NearbyHomestay> result = new ArrayList<>(capped);
+        for (Homestay homestay : availableOnly(ordered, checkIn, checkOut)) {
+            if (result.size() >= capped) {
+                break;
+            }
+            result.add(NearbyHomestay.of(homestay, distances.get(homestay.getId())));
+        }
+        return result;
+    }
+
+    // Record a search in the search.requests timer of its kind
+    private <T> T timed(String kind, Supplier<T> search) {
+        Timer timer = searchTimers.computeIfAbsent(kind, k -> Timer.builder("search.requests")
+                .description("Homestay search latency")
+                .tag("kind", k)
+                .register(meterRegistry));
+        return timer.record(search);
+    }
+
+    // Serve a search from the result cache, or run it and remember the ids it found
+    private List<Homestay> cached(SearchResultCache.Key key, Supplier<List<Homestay>> search) {
+        if (!resultCacheEnabled) {
+            return search.get();
+        }
+        List<Long> ids = searchResultCache.get(key);
+        if (ids != null) {
+            return findAllInOrder(ids);
+        }
+        long stamp = searchResultCache.stamp();
+        List<Homestay> result = search.get();
+        searchResultCache.put(key, result.stream().map(Homestay::getId).toList(), stamp);
+        return result;
+    }
+
+    private List<Homestay> findAllInOrder(List<Long> ids) {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.findByIds(ids);
+        }
+        Map<Long, Homestay> byId = new HashMap<>();
+        for (Homestay homestay : homestayRepository.findAllById(ids)) {
+            byId.put(homestay.getId(), homestay);
+        }
+        List<Homestay> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Homestay homestay = byId.get(id);
+            if (homestay != null) {
+                result.add(homestay);
+            }
+        }
+        return result;
+    }
+
+    // Homestays with at least one listed night in [checkIn, checkOut) that no active booking covers
+    private List<Homestay> availableOnly(List<Homestay> candidates, LocalDate checkIn, LocalDate checkOut) {
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, AvailabilityCalendar> booked = new HashMap<>();
+        List<Long> ids = candidates.stream().map(Homestay::getId).toList();
+        for (BookingRepository.BookedStay stay : bookingRepository.findActiveOverlapping(ids, checkIn, checkOut)) {
+            LocalDate from = stay.getCheckInDate().isAfter(checkIn) ? stay.getCheckInDate() : checkIn;
+            LocalDate to = stay.getCheckOutDate().isBefore(checkOut) ? stay.getCheckOutDate() : checkOut;
+            booked.computeIfAbsent(stay.getHomestayId(), id -> new AvailabilityCalendar()).addRange(from, to);
+        }
+        List<Homestay> available = new ArrayList<>();
+        for (Homestay homestay : candidates) {
+            if (homestay.getAvailability().containsAny(checkIn, checkOut, booked.get(homestay.getId()))) {
+                available.add(homestay);
+            }
+        }
+        return available;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.HOMESTAY_DETAILS, key = "#result.id")
     public Homestay save(Homestay homestay) {
-        return homestayRepository.save(homestay);
+        Homestay saved = homestayRepository.save(homestay);
+        AvailabilityCalendar previousNights = availabilityIndex.availabilityOf(saved.getId());
+        String previousLocation = availabilityIndex.put(saved);
+        searchResultCache.availabilityChanged(previousLocation, previousNights);
+        searchResultCache.availabilityChanged(saved.getLocation(), saved.getAvailability());
+        locationSuggestService.homestaySaved(previousLocation, saved.getLocation());
+        textSearchIndex.put(saved);
+        geoIndex.put(saved);
+        return saved;
+    }
+
+    /**
+     * Identifies the current state of the searchable data: equal values mean any search returns
+     * the same result as before. Used as the ETag of the JSON search API.
+     */
+    public String searchVersion() {
+        return BOOT_ID + "-" + availabilityIndex.version();
     }
 
     public Homestay findById(Long id) {
         return homestayRepository.findById(id).orElse(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * What the homestay detail page shows, served from the {@value CacheConfig#HOMESTAY_DETAILS} cache.
+     */
+    @Cacheable(cacheNames = CacheConfig.HOMESTAY_DETAILS, key = "#id", unless = "#result == null")
+    public HomestayDetails findDetailsById(Long id) {
+        return homestayRepository.findDetailsById(id).map(HomestayDetails::of).orElse(null);
+    }
+
+    /**
+     * Keep search structures in step with a newly persisted booking.
+     */
+    @CacheEvict(cacheNames = CacheConfig.HOMESTAY_DETAILS, key = "#homestayId")
+    public void recordBooking(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        availabilityIndex.book(homestayId, checkIn, checkOut);
+        searchResultCache.bookingAdded(availabilityIndex.locationOf(homestayId), checkIn, checkOut);
+    }
+
+    /**
+     * Keep search structures in step with a booking that was cancelled, freeing its nights.
+     */
+    @CacheEvict(cacheNames = CacheConfig.HOMESTAY_DETAILS, key = "#homestayId")
+    public void releaseBooking(Long homestayId, LocalDate checkIn, LocalDate checkOut) {
+        availabilityIndex.release(homestayId, checkIn, checkOut);
+        AvailabilityCalendar freed = new AvailabilityCalendar();
+        freed.addRange(checkIn, checkOut);
+        searchResultCache.availabilityChanged(availabilityIndex.locationOf(homestayId), freed);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.config.DistrictCatalog;
+import com.example.stayfinder.index.LocationTrie;
+import com.example.stayfinder.repository.HomestayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Location typeahead backed by a {@link LocationTrie}.
+ *
+ * The trie holds every district from {@link DistrictCatalog} plus every distinct
+ * {@code Homestay.location}, weighted by the number of homestays listed there so busy places
+ * rank first. It is built once the application is ready and updated as homestays are saved.
+ */
+@Service
+public class LocationSuggestService {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private DistrictCatalog districtCatalog;
+
+    @Autowired
+    private HomestayRepository homestayRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocationTrie trie = new LocationTrie(MAX_SUGGESTIONS);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocationTrie fresh = new LocationTrie(MAX_SUGGESTIONS);
+        for (String district : districtCatalog.getDistricts()) {
+            fresh.put(district, 0);
+        }
+        for (HomestayRepository.LocationCount count : homestayRepository.countByLocation()) {
+            fresh.put(count.getLocation(), fresh.weightOf(count.getLocation()) + count.getHomestays());
+        }
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<LocationTrie.Suggestion> suggest(String prefix, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, capped);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move one homestay's weight from its previous location (null when new) to its current one.
+     */
+    public void homestaySaved(String previousLocation, String location) {
+        if (LocationTrie.normalize(previousLocation).equals(LocationTrie.normalize(location))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (previousLocation != null) {
+                trie.put(previousLocation, Math.max(0, trie.weightOf(previousLocation) - 1));
+            }
+            if (location != null) {
+                trie.put(location, trie.weightOf(location) + 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for the payment provider used by the booking pipeline.
+ *
+ * One {@link #authorize(List)} call is one round trip to the provider, however many bookings it
+ * carries, which is why the pipeline sends bookings in batches. The round trip is simulated with
+ * {@code payment.gateway.latency}; {@code payment.gateway.decline-rate} is the share of bookings
+ * it declines.
+ */
+@Component
+public class PaymentGateway {
+
+    @Value("${payment.gateway.latency:50ms}")
+    private Duration latency;
+
+    @Value("${payment.gateway.decline-rate:0.0}")
+    private double declineRate;
+
+    /**
+     * Charge the guests of a batch of bookings.
+     *
+     * @return ids of the bookings whose payment went through
+     */
+    public Set<Long> authorize(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Payment interrupted");
+        }
+        Set<Long> approved = new HashSet<>();
+        for (Booking booking : bookings) {
+            if (declineRate <= 0 || ThreadLocalRandom.current().nextDouble() >= declineRate) {
+                approved.add(booking.getId());
+            }
+        }
+        return approved;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.stayfinder.service;
 
+import com.example.stayfinder.config.CacheConfig;
+import com.example.stayfinder.dto.UserAccount;
 import com.example.stayfinder.model.User;
 import com.example.stayfinder.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import jakarta.validation.Valid;
@@ -16,6 +20,7 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.email")
     public User registerUser(@Valid User user) {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new RuntimeException("User already exists with email: " + user.getEmail());
@@ -24,7 +29,31 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * The account with this email, served from the {@value CacheConfig#USERS} cache. Login and
+     * every booking request look the signed-in user up here.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#email", unless = "#result == null")
+    public UserAccount findAccount(String email) {
+        return userRepository.findByEmail(email).map(UserAccount::of).orElse(null);
+    }
+
+    /**
+     * The user entity with this email, read from the database; see {@link #findAccount(String)}
+     * for request paths.
+     */
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Store a new hash for the account, e.g. after login re-encoded the password at a higher cost.
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#email")
+    public void updatePasswordHash(String email, String passwordHash) {
+        userRepository.findByEmail(email).ifPresent(user -> {
+            user.setPassword(passwordHash);
+            userRepository.save(user);
+        });
+    }
+}
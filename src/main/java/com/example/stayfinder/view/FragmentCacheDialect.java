@@ -0,0 +1,118 @@
+package com.example.stayfinder.view;
+
+import org.springframework.cache.Cache;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Output cache for template fragments that render the same for many requests, e.g.
+ * {@code <nav th:fragment="navbar" sf:cache="${#authorization.expression('!isAuthenticated()')} ? 'navbar:anonymous'">}.
+ *
+ * {@code sf:cache} goes on a {@code th:fragment} root and holds an expression for the cache key.
+ * When the key is null the fragment is rendered as usual, so the expression decides who shares a
+ * copy. On a miss the fragment is rendered once on its own, with the variables of the page that
+ * inserted it, and the HTML is stored; after that, inserting it writes the stored HTML without
+ * evaluating anything inside it.
+ *
+ * Only use it where the key covers everything the fragment shows: user names, CSRF tokens or
+ * session-encoded links in a cached fragment would be served to everyone sharing the key.
+ */
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+
+    public static final String PREFIX = "sf";
+
+    // Runs before the standard processors, so th:fragment is still on the element
+    private static final int PRECEDENCE = 10;
+
+    private final Supplier<ITemplateEngine> templateEngine;
+    private final Cache cache;
+    private final boolean enabled;
+
+    // Keys being rendered on this thread: the fragment's own render must not wait on its cache entry
+    private final ThreadLocal<Set<Object>> rendering = ThreadLocal.withInitial(HashSet::new);
+
+    /**
+     * @param templateEngine the engine this dialect is added to, looked up when first needed
+     * @param enabled false strips {@code sf:cache} and renders every fragment, e.g. while templates are edited
+     */
+    public FragmentCacheDialect(Supplier<ITemplateEngine> templateEngine, Cache cache, boolean enabled) {
+        super("Fragment cache", PREFIX, PRECEDENCE);
+        this.templateEngine = templateEngine;
+        this.cache = cache;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new CacheAttributeProcessor(dialectPrefix));
+    }
+
+    private final class CacheAttributeProcessor extends AbstractAttributeModelProcessor {
+
+        CacheAttributeProcessor(String dialectPrefix) {
+            super(TemplateMode.HTML, dialectPrefix, null, false, "cache", true, PRECEDENCE, false);
+        }
+
+        @Override
+        protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName,
+                                 String attributeValue, IElementModelStructureHandler structureHandler) {
+            IProcessableElementTag root = (IProcessableElementTag) model.get(0);
+            model.replace(0, context.getModelFactory().removeAttribute(root, attributeName));
+            if (!enabled) {
+                return;
+            }
+            Object key = StandardExpressions.getExpressionParser(context.getConfiguration())
+                    .parseExpression(context, attributeValue)
+                    .execute(context);
+            if (key == null || rendering.get().contains(key)) {
+                return;
+            }
+            String fragment = root.getAttributeValue("th", "fragment");
+            if (fragment == null) {
+                throw new IllegalArgumentException(PREFIX + ":cache needs a th:fragment on the same element in " + root.getTemplateName());
+            }
+            String html = cache.get(key, () -> render(context, key, root.getTemplateName(), fragment));
+            model.reset();
+            model.add(context.getModelFactory().createText(html));
+        }
+
+        private String render(ITemplateContext context, Object key, String template, String fragment) {
+            Map<String, Object> variables = new HashMap<>();
+            for (String name : context.getVariableNames()) {
+                variables.put(name, context.getVariable(name));
+            }
+            IContext copy = context instanceof IWebContext web
+                    ? new WebContext(web.getExchange(), context.getLocale(), variables)
+                    : new Context(context.getLocale(), variables);
+            // Selected by name, without a parameter list such as "(title)"
+            int parameters = fragment.indexOf('(');
+            String selector = (parameters < 0 ? fragment : fragment.substring(0, parameters)).trim();
+            rendering.get().add(key);
+            try {
+                return templateEngine.get().process(new TemplateSpec(template, Set.of(selector), TemplateMode.HTML, null), copy);
+            } finally {
+                rendering.get().remove(key);
+            }
+        }
+    }
+}
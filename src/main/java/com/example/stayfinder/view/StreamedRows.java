@@ -0,0 +1,56 @@
+package com.example.stayfinder.view;
+
+import java.util.Iterator;
+
+/**
+ * Rows handed to a template while they are still being read, for {@code th:each}. They can be
+ * iterated once. Every {@code chunkSize} rows, before the next row is rendered, {@code onChunk} runs;
+ * {@link StreamingViews} uses it to send what has been rendered so far to the client.
+ *
+ * {@link #isEmpty()} only looks ahead, so a template can show an empty state before the list.
+ */
+public class StreamedRows<T> implements Iterable<T> {
+
+    private final Iterator<T> rows;
+    private final int chunkSize;
+    private final Runnable onChunk;
+    private boolean iterated;
+
+    public StreamedRows(Iterator<T> rows, int chunkSize, Runnable onChunk) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.rows = rows;
+        this.chunkSize = chunkSize;
+        this.onChunk = onChunk;
+    }
+
+    public boolean isEmpty() {
+        return !rows.hasNext();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("Streamed rows can only be iterated once");
+        }
+        iterated = true;
+        return new Iterator<>() {
+            private int produced;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (produced > 0 && produced % chunkSize == 0) {
+                    onChunk.run();
+                }
+                produced++;
+                return rows.next();
+            }
+        };
+    }
+}
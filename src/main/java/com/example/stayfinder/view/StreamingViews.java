@@ -0,0 +1,77 @@
+package com.example.stayfinder.view;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Pages whose list is rendered while it is read, for lists that grow without bound such as
+ * My Bookings. A controller returns {@code streamingViews.rows("bookings", "bookings", () -> stream)}
+ * instead of putting a list in the model and returning the view name.
+ *
+ * The stream is opened in a read-only transaction around the Thymeleaf view, so a Spring Data
+ * {@code Stream} query can be used, and the template gets it as {@link StreamedRows}. Every
+ * {@code views.streaming.chunk-size} rows the response is flushed: the page starts arriving with
+ * the first rows, and neither the rows nor the HTML of the whole list are held in memory.
+ *
+ * Rows should be read models (constructor-expression DTOs) rather than entities, which the
+ * persistence context would keep until the transaction ends. Once the first chunk is sent the
+ * status is committed, so an error further down cuts the page short instead of showing the error page.
+ */
+@Component
+public class StreamingViews {
+
+    @Autowired
+    private ThymeleafViewResolver viewResolver;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${views.streaming.chunk-size:50}")
+    private int chunkSize;
+
+    /**
+     * @param viewName     the template, as a controller would return it
+     * @param rowsVariable the model variable the template iterates
+     * @param rows         opens the stream of rows; called inside the transaction and closed after rendering
+     */
+    public <T> View rows(String viewName, String rowsVariable, Supplier<Stream<T>> rows) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return (model, request, response) -> {
+            View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    Map<String, Object> variables = model == null ? new HashMap<>() : new HashMap<>(model);
+                    variables.put(rowsVariable, new StreamedRows<>(stream.iterator(), chunkSize, () -> flush(response)));
+                    view.render(variables, request, response);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to render " + viewName, e);
+                }
+            });
+        };
+    }
+
+    private static void flush(HttpServletResponse response) {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
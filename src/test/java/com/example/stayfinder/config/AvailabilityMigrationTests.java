@@ -0,0 +1,80 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.HomestayRepository;
+import com.example.stayfinder.service.HomestayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AvailabilityMigrationTests {
+
+	@Autowired
+	private AvailabilityMigration migration;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private HomestayRepository homestayRepository;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void copiesLegacyRowsIntoTheCalendarColumn() {
+		jdbcTemplate.execute("CREATE TABLE " + AvailabilityMigration.LEGACY_TABLE
+				+ " (homestay_id BIGINT NOT NULL, available_date DATE NOT NULL, PRIMARY KEY (homestay_id, available_date))");
+		try {
+			long legacy = insertLegacyHomestay();
+			jdbcTemplate.batchUpdate("INSERT INTO " + AvailabilityMigration.LEGACY_TABLE + " VALUES (?, ?)", List.of(
+					new Object[]{legacy, LocalDate.of(2035, 12, 31)},
+					new Object[]{legacy, LocalDate.of(2036, 1, 1)},
+					new Object[]{legacy, LocalDate.of(2035, 3, 1)}));
+
+			assertThat(migration.migrate()).isEqualTo(1);
+			assertThat(homestayRepository.findById(legacy).orElseThrow().getAvailableDates())
+					.containsExactly(LocalDate.of(2035, 3, 1), LocalDate.of(2035, 12, 31), LocalDate.of(2036, 1, 1));
+			// Already migrated homestays are left alone
+			assertThat(migration.migrate()).isZero();
+		} finally {
+			jdbcTemplate.execute("DROP TABLE " + AvailabilityMigration.LEGACY_TABLE);
+		}
+	}
+
+	@Test
+	void calendarChangesMadeInPlaceArePersisted() {
+		Long id = homestayService.save(new Homestay(null, "Calendarpet", "In place", 1000.0, List.of(LocalDate.of(2035, 5, 1)))).getId();
+
+		transactionTemplate.executeWithoutResult(status ->
+				homestayRepository.findById(id).orElseThrow().getAvailability().add(LocalDate.of(2035, 5, 2)));
+
+		assertThat(homestayRepository.findById(id).orElseThrow().getAvailableDates())
+				.containsExactly(LocalDate.of(2035, 5, 1), LocalDate.of(2035, 5, 2));
+	}
+
+	private long insertLegacyHomestay() {
+		GeneratedKeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement insert = connection.prepareStatement(
+					"INSERT INTO homestays (location, description, price) VALUES ('Legacypuram', 'Before the calendar', 900)",
+					Statement.RETURN_GENERATED_KEYS);
+			return insert;
+		}, keys);
+		return keys.getKey().longValue();
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.stayfinder.config;
+
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.BookingRepository;
+import com.example.stayfinder.repository.HomestayRepository;
+import com.example.stayfinder.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DataLoaderTests {
+
+	@Autowired
+	private DataLoader dataLoader;
+
+	@Autowired
+	private HomestayRepository homestayRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void seedsTheDemoDataOnceWithWorkingCredentials() throws Exception {
+		// Seeded at startup; running again finds homestays and writes nothing
+		long homestays = homestayRepository.count();
+		assertThat(dataLoader.seed()).isFalse();
+		assertThat(homestayRepository.count()).isEqualTo(homestays);
+		assertThat(homestayRepository.findByLocationContainingIgnoreCase("Prakasam")).hasSize(1);
+		assertThat(homestayRepository.findByLocationContainingIgnoreCase("Kurnool")).hasSize(2);
+
+		User host = userService.findByEmail("host@example.com");
+		assertThat(host.getRole()).isEqualTo(User.Role.HOST);
+		assertThat(passwordEncoder.matches("hostpass", host.getPassword())).isTrue();
+		User demoUser = userService.findByEmail(DataLoader.DEMO_USER_EMAIL);
+		assertThat(passwordEncoder.matches("password", demoUser.getPassword())).isTrue();
+		assertThat(bookingRepository.findByUserId(demoUser.getId())).hasSize(3);
+	}
+}
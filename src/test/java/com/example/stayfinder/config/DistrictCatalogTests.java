@@ -0,0 +1,16 @@
+package com.example.stayfinder.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistrictCatalogTests {
+
+	private final DistrictCatalog catalog = new DistrictCatalog(new ObjectMapper());
+
+	@Test
+	void loadsDistrictsOnce() {
+		assertThat(catalog.getDistricts()).contains("Tirupati", "Visakhapatnam").hasSize(catalog.size());
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.stayfinder.controller;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.service.HomestayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HomestayApiControllerTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2036, 4, 1);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Test
+	void searchReturnsSummariesWithCachingHeaders() throws Exception {
+		homestayService.save(new Homestay(null, "Apipuram", "Api stay", 1300.0, List.of(CHECK_IN)));
+
+		mockMvc.perform(search("apipuram"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=30")))
+				.andExpect(jsonPath("$.items[0].location").value("Apipuram"))
+				.andExpect(jsonPath("$.items[0].price").value(1300.0))
+				// Summaries only: no host, bookings or dates
+				.andExpect(jsonPath("$.items[0].host").doesNotExist())
+				.andExpect(jsonPath("$.items[0].availableDates").doesNotExist());
+	}
+
+	@Test
+	void unchangedDataAnswersConditionalRequestsWith304() throws Exception {
+		homestayService.save(new Homestay(null, "Etagpuram", "First", 1000.0, List.of(CHECK_IN)));
+		String etag = mockMvc.perform(search("etagpuram")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		MvcResult notModified = mockMvc.perform(search("etagpuram").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andReturn();
+		assertThat(notModified.getResponse().getContentAsString()).isEmpty();
+
+		homestayService.save(new Homestay(null, "Etagpuram", "Second", 1100.0, List.of(CHECK_IN)));
+
+		mockMvc.perform(search("etagpuram").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2))
+				.andExpect(content().string(containsString("Second")));
+	}
+
+	@Test
+	void nearbyReturnsDistancesAndRejectsBadRadius() throws Exception {
+		Homestay homestay = new Homestay(null, "Geopuram", "Map stay", 900.0, List.of(CHECK_IN));
+		homestay.setLatitude(14.0);
+		homestay.setLongitude(78.0);
+		homestayService.save(homestay);
+
+		mockMvc.perform(nearby("5"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$[0].location").value("Geopuram"))
+				.andExpect(jsonPath("$[0].latitude").value(14.0))
+				.andExpect(jsonPath("$[0].distanceKm").value(lessThan(1.0)));
+
+		mockMvc.perform(nearby("-1")).andExpect(status().isBadRequest());
+	}
+
+	private static MockHttpServletRequestBuilder nearby(String radiusKm) {
+		return get("/api/homestays/nearby")
+				.param("lat", "14.001")
+				.param("lng", "78.001")
+				.param("radiusKm", radiusKm)
+				.param("checkIn", CHECK_IN.toString())
+				.param("checkOut", CHECK_IN.plusDays(1).toString());
+	}
+
+	private static MockHttpServletRequestBuilder search(String location) {
+		return get("/api/homestays/search")
+				.param("location", location)
+				.param("checkIn", CHECK_IN.toString())
+				.param("checkOut", CHECK_IN.plusDays(1).toString());
+	}
+}
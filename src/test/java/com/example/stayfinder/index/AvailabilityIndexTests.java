@@ -0,0 +1,69 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.service.HomestayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AvailabilityIndexTests {
+
+	@Autowired
+	private AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Test
+	void indexAgreesWithJpaQuery() {
+		assertThat(availabilityIndex.isReady()).isTrue();
+		String[] locations = {"", "visakha", "VIJAYAWADA", "tir", "nowhere"};
+		LocalDate[][] ranges = {
+				{LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 31)},
+				{LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 3)},
+				{LocalDate.of(2025, 10, 4), LocalDate.of(2025, 12, 31)}
+		};
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", false);
+		ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", false);
+		try {
+			for (String location : locations) {
+				for (LocalDate[] range : ranges) {
+					assertThat(ids(availabilityIndex.findAvailable(location, range[0], range[1])))
+							.as("%s %s..%s", location, range[0], range[1])
+							.containsExactlyInAnyOrderElementsOf(ids(homestayService.findAvailableByLocationAndDates(location, range[0], range[1])));
+				}
+			}
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+			ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", true);
+		}
+	}
+
+	@Test
+	void bookedNightsAreNotAvailable() {
+		AvailabilityIndex index = new AvailabilityIndex();
+		Homestay homestay = new Homestay(null, "Tirupati", "Near temple", 2000.0,
+				List.of(LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 16)));
+		homestay.setId(42L);
+		index.put(homestay);
+
+		assertThat(index.findAvailable("tiru", LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 17))).hasSize(1);
+		assertThat(index.findAvailable("kurnool", LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 17))).isEmpty();
+
+		index.book(42L, LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 16));
+		assertThat(index.findAvailable("tiru", LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 16))).isEmpty();
+		// Check-out night stays free
+		assertThat(index.findAvailable("tiru", LocalDate.of(2025, 10, 16), LocalDate.of(2025, 10, 17))).hasSize(1);
+	}
+
+	private static List<Long> ids(List<Homestay> homestays) {
+		return homestays.stream().map(Homestay::getId).toList();
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.stayfinder.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingConflictIndexTests {
+
+	private static LocalDate oct(int day) {
+		return LocalDate.of(2025, 10, day);
+	}
+
+	@Test
+	void checkOutDayIsExclusive() {
+		BookingConflictIndex.BookedRanges ranges = new BookingConflictIndex.BookedRanges();
+		ranges.add(oct(10), oct(12));
+
+		assertThat(ranges.overlaps(oct(12), oct(14))).isFalse();
+		assertThat(ranges.overlaps(oct(8), oct(10))).isFalse();
+		assertThat(ranges.overlaps(oct(11), oct(12))).isTrue();
+		assertThat(ranges.overlaps(oct(9), oct(13))).isTrue();
+	}
+
+	@Test
+	void overlappingAndTouchingRangesAreMerged() {
+		BookingConflictIndex.BookedRanges ranges = new BookingConflictIndex.BookedRanges();
+		ranges.add(oct(1), oct(3));
+		ranges.add(oct(10), oct(12));
+		ranges.add(oct(20), oct(22));
+		ranges.add(oct(3), oct(5));
+		assertThat(ranges.size()).isEqualTo(3);
+
+		// Spans the gap between the last two ranges
+		ranges.add(oct(11), oct(21));
+		assertThat(ranges.size()).isEqualTo(2);
+		assertThat(ranges.overlaps(oct(15), oct(16))).isTrue();
+		assertThat(ranges.overlaps(oct(5), oct(10))).isFalse();
+		assertThat(ranges.overlaps(oct(22), oct(30))).isFalse();
+	}
+
+	@Test
+	void rangesLoadedFromADayDoNotCoverEarlierStays() {
+		BookingConflictIndex.BookedRanges ranges = new BookingConflictIndex.BookedRanges(oct(10));
+
+		assertThat(ranges.covers(oct(10))).isTrue();
+		assertThat(ranges.covers(oct(9))).isFalse();
+		assertThat(new BookingConflictIndex.BookedRanges().covers(oct(1))).isTrue();
+	}
+}
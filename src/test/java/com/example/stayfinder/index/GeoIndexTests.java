@@ -0,0 +1,161 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.repository.HomestayRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoIndexTests {
+
+	// Roughly the extent of Andhra Pradesh
+	private static final double SOUTH = 12.6;
+	private static final double NORTH = 19.9;
+	private static final double WEST = 76.7;
+	private static final double EAST = 84.8;
+
+	@Test
+	void distanceMatchesKnownValues() {
+		// Tirupati to Tirumala, about 10 km as the crow flies
+		assertThat(GeoIndex.distanceKm(13.6288, 79.4192, 13.6833, 79.3474)).isCloseTo(9.7, within(0.5));
+		assertThat(GeoIndex.distanceKm(17.6868, 83.2185, 17.6868, 83.2185)).isZero();
+		// One degree of latitude
+		assertThat(GeoIndex.distanceKm(0, 80, 1, 80)).isCloseTo(111.2, within(0.1));
+	}
+
+	@Test
+	void radiusAndBoxQueriesMatchBruteForceOverAMillionPoints() {
+		int points = 1_000_000;
+		double[] latitudes = new double[points];
+		double[] longitudes = new double[points];
+		Random random = new Random(42);
+		GeoIndex index = new GeoIndex();
+		for (int i = 0; i < points; i++) {
+			latitudes[i] = SOUTH + random.nextDouble() * (NORTH - SOUTH);
+			longitudes[i] = WEST + random.nextDouble() * (EAST - WEST);
+			index.put((long) i, latitudes[i], longitudes[i]);
+		}
+		assertThat(index.size()).isEqualTo(points);
+
+		double[][] centres = {{13.6833, 79.3474}, {17.6868, 83.2185}, {SOUTH, WEST}, {16.5, 80.6}};
+		double[] radii = {1, 20, 75};
+		for (double[] centre : centres) {
+			for (double radius : radii) {
+				List<Long> expected = new ArrayList<>();
+				for (int i = 0; i < points; i++) {
+					if (GeoIndex.distanceKm(centre[0], centre[1], latitudes[i], longitudes[i]) <= radius) {
+						expected.add((long) i);
+					}
+				}
+				List<GeoIndex.Hit> hits = index.nearby(centre[0], centre[1], radius);
+				assertThat(hits).extracting(GeoIndex.Hit::homestayId).containsExactlyInAnyOrderElementsOf(expected);
+				assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(GeoIndex.Hit::distanceKm));
+			}
+		}
+
+		GeoIndex.Box box = new GeoIndex.Box(16.4, 80.5, 16.6, 80.8);
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < points; i++) {
+			if (box.contains(latitudes[i], longitudes[i])) {
+				expected.add((long) i);
+			}
+		}
+		assertThat(index.within(box)).extracting(GeoIndex.Hit::homestayId).containsExactlyInAnyOrderElementsOf(expected);
+		// A box spanning the whole state walks the occupied cells instead of every grid cell
+		assertThat(index.within(new GeoIndex.Box(-90, -180, 90, 180))).hasSize(points);
+	}
+
+	@Test
+	void limitedQueriesKeepTheNearestAcceptedHits() {
+		Random random = new Random(7);
+		GeoIndex index = new GeoIndex();
+		List<GeoIndex.Hit> all = new ArrayList<>();
+		for (long id = 0; id < 2_000; id++) {
+			double latitude = 16.4 + random.nextDouble() * 0.4;
+			double longitude = 80.4 + random.nextDouble() * 0.4;
+			index.put(id, latitude, longitude);
+			all.add(new GeoIndex.Hit(id, GeoIndex.distanceKm(16.6, 80.6, latitude, longitude)));
+		}
+		List<Long> evenNearest = all.stream()
+				.filter(hit -> hit.distanceKm() <= 15 && hit.homestayId() % 2 == 0)
+				.sorted(Comparator.comparingDouble(GeoIndex.Hit::distanceKm).thenComparingLong(GeoIndex.Hit::homestayId))
+				.map(GeoIndex.Hit::homestayId)
+				.limit(7)
+				.toList();
+
+		assertThat(index.nearby(16.6, 80.6, 15, 7, id -> id % 2 == 0)).extracting(GeoIndex.Hit::homestayId)
+				.containsExactlyElementsOf(evenNearest);
+		assertThat(index.within(new GeoIndex.Box(16.4, 80.4, 16.8, 80.8), 3, id -> true)).hasSize(3)
+				.isSortedAccordingTo(Comparator.comparingDouble(GeoIndex.Hit::distanceKm));
+	}
+
+	@Test
+	void movingAndClearingCoordinatesUpdatesTheGrid() {
+		GeoIndex index = new GeoIndex();
+		index.put(1L, 13.6288, 79.4192);
+		index.put(2L, 13.63, 79.42);
+
+		index.put(1L, 17.6868, 83.2185);
+		assertThat(index.nearby(13.6288, 79.4192, 5)).extracting(GeoIndex.Hit::homestayId).containsExactly(2L);
+		assertThat(index.nearby(17.6868, 83.2185, 5)).extracting(GeoIndex.Hit::homestayId).containsExactly(1L);
+
+		index.put(2L, null, null);
+		assertThat(index.nearby(13.6288, 79.4192, 5)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void putDuringARebuildIsKeptInTheRebuiltGrid() {
+		GeoIndex index = new GeoIndex();
+		// The database still has homestay 1 in Tirupati and not yet homestay 2
+		HomestayRepository repository = (HomestayRepository) Proxy.newProxyInstance(HomestayRepository.class.getClassLoader(),
+				new Class<?>[] {HomestayRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findAllCoordinates")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					index.put(1L, null, null);
+					index.put(2L, 17.6868, 83.2185);
+					return List.of(coordinates(1L, 13.6288, 79.4192));
+				});
+		ReflectionTestUtils.setField(index, "homestayRepository", repository);
+
+		index.rebuild();
+
+		assertThat(index.nearby(13.6288, 79.4192, 5)).isEmpty();
+		assertThat(index.nearby(17.6868, 83.2185, 5)).extracting(GeoIndex.Hit::homestayId).containsExactly(2L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsInvertedBoxes() {
+		assertThatThrownBy(() -> new GeoIndex.Box(17, 80, 16, 81)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new GeoIndex.Box(16, 81, 17, 80)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static HomestayRepository.Coordinates coordinates(Long id, double latitude, double longitude) {
+		return new HomestayRepository.Coordinates() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Double getLatitude() {
+				return latitude;
+			}
+
+			@Override
+			public Double getLongitude() {
+				return longitude;
+			}
+		};
+	}
+}
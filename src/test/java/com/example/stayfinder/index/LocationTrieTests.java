@@ -0,0 +1,42 @@
+package com.example.stayfinder.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationTrieTests {
+
+	@Test
+	void ranksByWeightThenName() {
+		LocationTrie trie = new LocationTrie(3);
+		trie.put("Vizianagaram", 0);
+		trie.put("Visakhapatnam", 5);
+		trie.put("Vijayawada", 2);
+		trie.put("Guntur", 9);
+
+		assertThat(names(trie.suggest("vi", 10))).containsExactly("Visakhapatnam", "Vijayawada", "Vizianagaram");
+		assertThat(names(trie.suggest("viz", 10))).containsExactly("Vizianagaram");
+		assertThat(trie.suggest("x", 10)).isEmpty();
+	}
+
+	@Test
+	void matchesWordStartsAndTracksWeightChanges() {
+		LocationTrie trie = new LocationTrie(2);
+		trie.put("East Godavari", 1);
+		trie.put("West Godavari", 1);
+		trie.put("Gooty", 0);
+
+		assertThat(names(trie.suggest("go", 5))).containsExactly("East Godavari", "West Godavari");
+
+		trie.put("gooty", 7);
+		trie.put("East Godavari", 0);
+		assertThat(names(trie.suggest("go", 5))).containsExactly("Gooty", "West Godavari");
+		assertThat(trie.size()).isEqualTo(3);
+	}
+
+	private static List<String> names(List<LocationTrie.Suggestion> suggestions) {
+		return suggestions.stream().map(LocationTrie.Suggestion::name).toList();
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.model.AvailabilityCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTests {
+
+	private static final LocalDate OCT_1 = LocalDate.of(2025, 10, 1);
+
+	private final SearchResultCache cache = new SearchResultCache(100, Duration.ofMinutes(10));
+
+	private final SearchResultCache.Key vizagEarly = SearchResultCache.Key.of("Vizag", OCT_1, OCT_1.plusDays(3));
+	private final SearchResultCache.Key vizagLate = SearchResultCache.Key.of("vizag", OCT_1.plusDays(10), OCT_1.plusDays(12));
+	private final SearchResultCache.Key guntur = SearchResultCache.Key.of("guntur", OCT_1, OCT_1.plusDays(3));
+	private final SearchResultCache.Key everywhere = SearchResultCache.Key.of("", OCT_1, OCT_1.plusDays(3));
+
+	@Test
+	void keysAreNormalized() {
+		cache.put(vizagEarly, List.of(1L, 2L), cache.stamp());
+
+		assertThat(cache.get(SearchResultCache.Key.of("  VIZAG ", OCT_1, OCT_1.plusDays(3)))).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void bookingEvictsOnlyOverlappingEntriesForItsLocation() {
+		fill();
+
+		// Check-out on Oct 1 does not touch a stay starting Oct 1
+		cache.bookingAdded("Vizag Beach", OCT_1.minusDays(2), OCT_1);
+		assertThat(cache.size()).isEqualTo(4);
+
+		cache.bookingAdded("Vizag Beach", OCT_1.plusDays(2), OCT_1.plusDays(4));
+
+		assertThat(cache.get(vizagEarly)).isNull();
+		assertThat(cache.get(everywhere)).isNull();
+		assertThat(cache.get(vizagLate)).isNotNull();
+		assertThat(cache.get(guntur)).isNotNull();
+	}
+
+	@Test
+	void availabilityChangeEvictsEntriesItsNightsFallIn() {
+		fill();
+
+		cache.availabilityChanged("Guntur", AvailabilityCalendar.of(List.of(OCT_1.plusDays(11))));
+		assertThat(cache.size()).isEqualTo(4);
+
+		cache.availabilityChanged("Vizag", AvailabilityCalendar.of(List.of(OCT_1.plusDays(11))));
+		assertThat(cache.get(vizagLate)).isNull();
+		assertThat(cache.get(vizagEarly)).isNotNull();
+		assertThat(cache.get(everywhere)).isNotNull();
+	}
+
+	@Test
+	void resultsOfSearchesOverlappingAnInvalidationAreNotCached() {
+		long stamp = cache.stamp();
+		cache.bookingAdded("Elsewhere", OCT_1, OCT_1.plusDays(1));
+
+		cache.put(guntur, List.of(7L), stamp);
+
+		assertThat(cache.get(guntur)).isNull();
+	}
+
+	private void fill() {
+		long stamp = cache.stamp();
+		cache.put(vizagEarly, List.of(1L), stamp);
+		cache.put(vizagLate, List.of(1L), stamp);
+		cache.put(guntur, List.of(2L), stamp);
+		cache.put(everywhere, List.of(1L, 2L), stamp);
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.stayfinder.index;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.HomestayRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextSearchIndexTests {
+
+	private final TextSearchIndex index = new TextSearchIndex(new ObjectMapper());
+
+	@Test
+	void tokenizesFoldsAccentsAndAppliesAliases() {
+		assertThat(index.tokenize("Cozy room near the Beach, Vizag!")).containsExactly("cozy", "room", "beach", "visakhapatnam");
+		assertThat(index.tokenize("Café in Bezawada")).containsExactly("cafe", "vijayawada");
+		assertThat(index.tokenize("  ")).isEmpty();
+	}
+
+	@Test
+	void matchesAliasesPrefixesAndMisspellings() {
+		index.put(homestay(1L, "Visakhapatnam", "Sea view flat"));
+		index.put(homestay(2L, "Vijayawada", "Near the river"));
+		index.put(homestay(3L, "Guntur", "Quiet garden house"));
+
+		assertThat(ids(index.search("vizag", 10))).containsExactly(1L);
+		assertThat(ids(index.search("visakha", 10))).containsExactly(1L);
+		assertThat(ids(index.search("vijaywada", 10))).containsExactly(2L);
+		assertThat(ids(index.search("garden", 10))).containsExactly(3L);
+		assertThat(index.search("xyzzy", 10)).isEmpty();
+	}
+
+	@Test
+	void ranksLocationAboveDescriptionAndFullMatchesFirst() {
+		index.put(homestay(1L, "Araku", "Coffee estate cottage"));
+		index.put(homestay(2L, "Visakhapatnam", "Day trips to Araku"));
+		index.put(homestay(3L, "Araku", "Valley view"));
+
+		assertThat(ids(index.search("araku", 10))).containsExactly(1L, 3L, 2L);
+		assertThat(ids(index.search("araku cottage", 10)).get(0)).isEqualTo(1L);
+		assertThat(ids(index.search("araku", 1))).containsExactly(1L);
+	}
+
+	@Test
+	void updateReplacesTheOldText() {
+		index.put(homestay(1L, "Kakinada", "Harbour rooms"));
+		index.put(homestay(1L, "Tirupati", "Temple view"));
+
+		assertThat(index.search("kakinada", 10)).isEmpty();
+		assertThat(index.search("harbour", 10)).isEmpty();
+		assertThat(ids(index.search("tirupathi temple", 10))).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void putDuringARebuildIsKeptInTheRebuiltIndex() {
+		// The database still has the old text of homestay 1 and not yet homestay 2
+		HomestayRepository repository = (HomestayRepository) Proxy.newProxyInstance(HomestayRepository.class.getClassLoader(),
+				new Class<?>[] {HomestayRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findAll")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					index.put(homestay(1L, "Tirupati", "Temple view"));
+					index.put(homestay(2L, "Guntur", "Garden house"));
+					return List.of(homestay(1L, "Kakinada", "Harbour rooms"));
+				});
+		ReflectionTestUtils.setField(index, "homestayRepository", repository);
+
+		index.rebuild();
+
+		assertThat(ids(index.search("tirupati", 10))).containsExactly(1L);
+		assertThat(ids(index.search("guntur", 10))).containsExactly(2L);
+		assertThat(index.search("kakinada", 10)).isEmpty();
+	}
+
+	private static Homestay homestay(Long id, String location, String description) {
+		Homestay homestay = new Homestay(null, location, description, 1000.0, List.of());
+		homestay.setId(id);
+		return homestay;
+	}
+
+	private static List<Long> ids(List<TextSearchIndex.Hit> hits) {
+		return hits.stream().map(TextSearchIndex.Hit::homestayId).toList();
+	}
+}
@@ -0,0 +1,7 @@
+package com.example.stayfinder.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadRequestLoadTests extends RequestLoadTestSupport {
+}
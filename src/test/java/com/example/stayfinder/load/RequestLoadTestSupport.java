@@ -0,0 +1,186 @@
+package com.example.stayfinder.load;
+
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.service.HomestayService;
+import com.example.stayfinder.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code /search} and {@code /book} over real HTTP with many concurrent clients and prints
+ * requests/sec and latency percentiles. Subclasses pick the request threading mode, so running
+ * both gives a side-by-side comparison:
+ *
+ * <pre>./mvnw -Pload-tests test -Dload.clients=256 -Dload.requests=4000</pre>
+ *
+ * Numbers depend heavily on the machine and on the database (the test profile uses in-memory H2,
+ * which never blocks on I/O the way MySQL does), so nothing is asserted about them.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class RequestLoadTestSupport {
+
+	private static final String LOCATION = "Loadpuram";
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2037, 1, 1);
+	private static final int HOMESTAYS = 200;
+	private static final int NIGHTS = 365;
+	private static final String PASSWORD = "loadpass";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private UserService userService;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreads;
+
+	private final int clients = Integer.getInteger("load.clients", 256);
+	private final int requests = Integer.getInteger("load.requests", 4000);
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.build();
+
+	private List<Long> homestayIds;
+	private User user;
+	private String sessionCookie;
+
+	@BeforeAll
+	void seed() throws Exception {
+		String email = "load." + getClass().getSimpleName().toLowerCase() + "@example.com";
+		user = userService.registerUser(new User(email, PASSWORD, "Load Tester", User.Role.USER));
+		List<LocalDate> nights = FIRST_NIGHT.datesUntil(FIRST_NIGHT.plusDays(NIGHTS)).toList();
+		homestayIds = new ArrayList<>();
+		for (int i = 0; i < HOMESTAYS; i++) {
+			homestayIds.add(homestayService.save(new Homestay(null, LOCATION, "Load listing " + i, 800.0 + i, nights)).getId());
+		}
+		HttpResponse<Void> login = http.send(form("/login", Map.of("username", email, "password", PASSWORD), null),
+				HttpResponse.BodyHandlers.discarding());
+		sessionCookie = login.headers().firstValue("Set-Cookie").map(c -> c.split(";", 2)[0]).orElseThrow();
+		// Warm up the JIT, template cache and connection pool before measuring
+		run("warm-up", Math.min(requests, 500), this::searchRequest, RequestLoadTestSupport::isOk);
+	}
+
+	@Test
+	void search() throws Exception {
+		run("/search", requests, this::searchRequest, RequestLoadTestSupport::isOk);
+	}
+
+	@Test
+	void book() throws Exception {
+		// Each request books a different night; the response comes once the booking is queued, and
+		// every queued booking goes on to be confirmed
+		AtomicInteger next = new AtomicInteger();
+		run("/book", Math.min(requests, HOMESTAYS * NIGHTS), i -> {
+			int slot = next.getAndIncrement();
+			LocalDate checkIn = FIRST_NIGHT.plusDays(slot / HOMESTAYS);
+			return form("/book", Map.of(
+					"homestay.id", String.valueOf(homestayIds.get(slot % HOMESTAYS)),
+					"user.id", String.valueOf(user.getId()),
+					"checkInDate", checkIn.toString(),
+					"checkOutDate", checkIn.plusDays(1).toString()), sessionCookie);
+		}, response -> response.statusCode() == 302
+				&& response.headers().firstValue("Location").orElse("").contains("/book/status/"));
+	}
+
+	private static boolean isOk(HttpResponse<Void> response) {
+		return response.statusCode() == 200;
+	}
+
+	private HttpRequest searchRequest(int i) {
+		LocalDate checkIn = FIRST_NIGHT.plusDays(i % (NIGHTS - 2));
+		return form("/search", Map.of("location", LOCATION, "checkIn", checkIn.toString(),
+				"checkOut", checkIn.plusDays(2).toString()), null);
+	}
+
+	private void run(String name, int total, IntFunction<HttpRequest> request, Predicate<HttpResponse<Void>> succeeded) throws Exception {
+		long[] latencies = new long[total];
+		AtomicInteger failures = new AtomicInteger();
+		Semaphore inFlight = new Semaphore(clients);
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>(total);
+			for (int i = 0; i < total; i++) {
+				int n = i;
+				inFlight.acquire();
+				futures.add(executor.submit(() -> {
+					try {
+						long sent = System.nanoTime();
+						HttpResponse<Void> response = http.send(request.apply(n), HttpResponse.BodyHandlers.discarding());
+						latencies[n] = System.nanoTime() - sent;
+						if (!succeeded.test(response)) {
+							failures.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failures.incrementAndGet();
+					} finally {
+						inFlight.release();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		Arrays.sort(latencies);
+		System.out.printf("[load] %-8s %-9s threads: %d requests, %d clients, %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d failed%n",
+				name, virtualThreads ? "virtual" : "platform", total, clients, total / seconds,
+				percentile(latencies, 0.50), percentile(latencies, 0.99), failures.get());
+		assertThat(failures.get()).as("requests to %s with an unexpected outcome", name).isZero();
+	}
+
+	private static double percentile(long[] sortedNanos, double p) {
+		int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	private HttpRequest form(String path, Map<String, String> fields, String cookie) {
+		String body = fields.entrySet().stream()
+				.map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+		if (cookie != null) {
+			builder.header("Cookie", cookie);
+		}
+		return builder.build();
+	}
+}
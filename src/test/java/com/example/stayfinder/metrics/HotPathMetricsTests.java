@@ -0,0 +1,127 @@
+package com.example.stayfinder.metrics;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.service.BookingService;
+import com.example.stayfinder.service.HomestayService;
+import com.example.stayfinder.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class HotPathMetricsTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2040, 6, 1);
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private SlowQueryLog slowQueryLog;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void hotPathsAreTimedAndScrapable() throws Exception {
+		User guest = userService.registerUser(new User("metrics.guest@example.com", "secret", "Metrics Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Metricspur", "Watched closely", 1000.0, List.of(NIGHT)));
+
+		homestayService.findAvailableByLocationAndDates("Metricspur", NIGHT, NIGHT.plusDays(1));
+		homestayService.searchText("watched", NIGHT, NIGHT.plusDays(1), 5);
+		bookingService.createBooking(new Booking(guest, homestay, NIGHT, NIGHT.plusDays(1), Booking.Status.PENDING));
+		passwordEncoder.matches("secret", passwordEncoder.encode("secret"));
+
+		assertThat(meterRegistry.get("search.requests").tag("kind", "location").timer().count()).isPositive();
+		assertThat(meterRegistry.get("search.requests").tag("kind", "text").timer().count()).isPositive();
+		assertThat(meterRegistry.get("bookings.conflict.check").tag("locking", "striped").timer().count()).isPositive();
+		assertThat(meterRegistry.get("password.encoder").tags("algorithm", "bcrypt", "operation", "matches").timer().count()).isPositive();
+		assertThat(meterRegistry.get("jdbc.statements").timer().count()).isPositive();
+		assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+
+		mockMvc.perform(get("/actuator/prometheus").with(user("admin@example.com").roles("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("search_requests_seconds_count{")))
+				.andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_count{")))
+				.andExpect(content().string(containsString("cache_gets_total{")));
+	}
+
+	@Test
+	void rowsReadPerRequestAreRecordedByUriPattern() throws Exception {
+		Homestay homestay = homestayService.save(new Homestay(null, "Rowcountpet", "Counted", 800.0, List.of(NIGHT)));
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", false);
+		ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", false);
+		try {
+			mockMvc.perform(get("/api/homestays/search")
+							.param("location", "Rowcountpet")
+							.param("checkIn", NIGHT.toString())
+							.param("checkOut", NIGHT.plusDays(1).toString()))
+					.andExpect(status().isOk())
+					.andExpect(content().string(containsString(String.valueOf(homestay.getId()))));
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+			ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", true);
+		}
+
+		DistributionSummary rows = meterRegistry.get("jdbc.rows.per.request").tag("uri", "/api/homestays/search").summary();
+		assertThat(rows.count()).isPositive();
+		assertThat(rows.max()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void slowStatementsAreLoggedWithBindValuesOnlyWhenEnabled(CapturedOutput output) {
+		double slowBefore = meterRegistry.get("jdbc.statements.slow").counter().count();
+		ReflectionTestUtils.setField(slowQueryLog, "threshold", Duration.ZERO);
+		try {
+			homestayService.findByLocation("Slowquerypalem");
+			assertThat(output.getOut()).contains("Slow query: ").doesNotContain("Slowquerypalem");
+
+			ReflectionTestUtils.setField(slowQueryLog, "logValues", true);
+			homestayService.findByLocation("Slowquerypalem");
+		} finally {
+			ReflectionTestUtils.setField(slowQueryLog, "threshold", Duration.ofMillis(200));
+			ReflectionTestUtils.setField(slowQueryLog, "logValues", false);
+		}
+
+		assertThat(meterRegistry.get("jdbc.statements.slow").counter().count()).isGreaterThan(slowBefore);
+		assertThat(output.getOut()).contains("'%Slowquerypalem%'");
+	}
+}
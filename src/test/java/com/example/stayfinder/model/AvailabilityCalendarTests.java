@@ -0,0 +1,84 @@
+package com.example.stayfinder.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityCalendarTests {
+
+	@Test
+	void rangeChecks() {
+		AvailabilityCalendar calendar = AvailabilityCalendar.of(List.of(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 11)));
+		calendar.add(LocalDate.of(2025, 1, 9));
+
+		assertThat(calendar.containsAll(LocalDate.of(2025, 1, 9), LocalDate.of(2025, 1, 12))).isTrue();
+		assertThat(calendar.containsAll(LocalDate.of(2025, 1, 9), LocalDate.of(2025, 1, 13))).isFalse();
+		assertThat(calendar.containsAny(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10))).isTrue();
+		assertThat(calendar.containsAny(LocalDate.of(2025, 1, 12), LocalDate.of(2025, 2, 1))).isFalse();
+		assertThat(calendar.size()).isEqualTo(3);
+	}
+
+	@Test
+	void rangesAcrossWordAndYearBoundaries() {
+		AvailabilityCalendar calendar = new AvailabilityCalendar();
+		// 2024 is a leap year, so Dec 31 is bit 365, in the last word
+		calendar.addRange(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 5));
+
+		assertThat(calendar.containsAll(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 5))).isTrue();
+		assertThat(calendar.containsAll(LocalDate.of(2024, 12, 19), LocalDate.of(2025, 1, 5))).isFalse();
+		assertThat(calendar.containsAll(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 6))).isFalse();
+		assertThat(calendar.contains(LocalDate.of(2024, 12, 31))).isTrue();
+
+		AvailabilityCalendar booked = new AvailabilityCalendar();
+		booked.addRange(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 4));
+		assertThat(calendar.containsAny(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 2, 1), booked)).isTrue();
+		booked.add(LocalDate.of(2025, 1, 4));
+		assertThat(calendar.containsAny(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 2, 1), booked)).isFalse();
+
+		calendar.remove(LocalDate.of(2024, 12, 31));
+		assertThat(calendar.containsAll(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 5))).isFalse();
+	}
+
+	@Test
+	void agreesWithDateListOnRandomRanges() {
+		SplittableRandom random = new SplittableRandom(11);
+		LocalDate first = LocalDate.of(2025, 11, 1);
+		List<LocalDate> nights = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			if (random.nextInt(4) != 0) {
+				nights.add(first.plusDays(i));
+			}
+		}
+		AvailabilityCalendar calendar = AvailabilityCalendar.of(nights);
+
+		for (int i = 0; i < 2000; i++) {
+			LocalDate from = first.plusDays(random.nextInt(-10, 510));
+			LocalDate to = from.plusDays(random.nextInt(1, 80));
+			List<LocalDate> range = from.datesUntil(to).toList();
+			assertThat(calendar.containsAll(from, to)).isEqualTo(nights.containsAll(range));
+			assertThat(calendar.containsAny(from, to)).isEqualTo(range.stream().anyMatch(nights::contains));
+		}
+		assertThat(calendar.dates()).isEqualTo(nights);
+	}
+
+	@Test
+	void bytesRoundTrip() {
+		AvailabilityCalendar calendar = new AvailabilityCalendar();
+		calendar.addRange(LocalDate.of(2025, 1, 1), LocalDate.of(2027, 1, 1));
+		calendar.add(LocalDate.of(2030, 6, 15));
+
+		byte[] bytes = calendar.toBytes();
+
+		// Two full years and one sparse one, 48 bytes each plus the version byte
+		assertThat(bytes).hasSize(1 + 3 * 48);
+		assertThat(AvailabilityCalendar.fromBytes(bytes)).isEqualTo(calendar);
+		assertThat(AvailabilityCalendar.fromBytes(bytes).size()).isEqualTo(365 + 365 + 1);
+		assertThat(AvailabilityCalendar.fromBytes(null).isEmpty()).isTrue();
+		assertThat(AvailabilityCalendar.fromBytes(new AvailabilityCalendar().toBytes()).isEmpty()).isTrue();
+	}
+}
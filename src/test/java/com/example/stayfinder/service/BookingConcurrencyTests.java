@@ -0,0 +1,110 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.repository.BookingRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers {@link BookingService#createBooking} from many threads and checks that no two
+ * persisted bookings of a homestay overlap. Throughput is printed for each client count.
+ */
+@SpringBootTest
+class BookingConcurrencyTests {
+
+	private static final int HOMESTAYS = 16;
+	private static final int NIGHTS = 365;
+	private static final int ATTEMPTS_PER_CLIENT = 20;
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@ParameterizedTest(name = "{0} clients, {1} locking")
+	@CsvSource({
+			"8, striped", "32, striped", "128, striped",
+			"8, pessimistic", "32, pessimistic", "128, pessimistic"
+	})
+	void concurrentBookingsNeverOverlap(int clients, String lockingMode) throws Exception {
+		ReflectionTestUtils.setField(bookingService, "lockingMode", lockingMode);
+		List<Homestay> homestays = new ArrayList<>();
+		for (int i = 0; i < HOMESTAYS; i++) {
+			List<LocalDate> nights = new ArrayList<>();
+			for (int n = 0; n < NIGHTS; n++) {
+				nights.add(FIRST_NIGHT.plusDays(n));
+			}
+			homestays.add(homestayService.save(new Homestay(null, "Tirupati", "Festival stay", 1500.0, nights)));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger booked = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		for (int c = 0; c < clients; c++) {
+			pool.submit(() -> {
+				start.await();
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int a = 0; a < ATTEMPTS_PER_CLIENT; a++) {
+					Homestay target = new Homestay();
+					target.setId(homestays.get(random.nextInt(HOMESTAYS)).getId());
+					LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(NIGHTS - 3));
+					Booking booking = new Booking(null, target, checkIn, checkIn.plusDays(1 + random.nextInt(3)), Booking.Status.PENDING);
+					try {
+						bookingService.createBooking(booking);
+						booked.incrementAndGet();
+					} catch (RuntimeException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		long started = System.nanoTime();
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		System.out.printf("%s locking, %d clients: %d booked, %d rejected, %.0f attempts/sec, %.0f bookings/sec%n",
+				lockingMode, clients, booked.get(), rejected.get(),
+				(booked.get() + rejected.get()) / seconds, booked.get() / seconds);
+
+		assertThat(booked.get() + rejected.get()).isEqualTo(clients * ATTEMPTS_PER_CLIENT);
+		int persisted = 0;
+		for (Homestay homestay : homestays) {
+			List<Booking> bookings = new ArrayList<>(bookingRepository.findByHomestayId(homestay.getId()));
+			bookings.sort(Comparator.comparing(Booking::getCheckInDate));
+			for (int i = 1; i < bookings.size(); i++) {
+				assertThat(bookings.get(i).getCheckInDate())
+						.as("double booking on homestay %d", homestay.getId())
+						.isAfterOrEqualTo(bookings.get(i - 1).getCheckOutDate());
+			}
+			persisted += bookings.size();
+		}
+		assertThat(persisted).isEqualTo(booked.get());
+	}
+}
@@ -0,0 +1,289 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingPipelineTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2039, 4, 1);
+
+	@Autowired
+	private BookingPipeline bookingPipeline;
+
+	@Autowired
+	private PaymentGateway paymentGateway;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void queuedBookingsAreCheckedAndConfirmedInTheBackground() throws Exception {
+		User guest = userService.registerUser(new User("pipeline.guest@example.com", "secret", "Pipeline Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Queuepalle", "Busy weekend", 1400.0, nights(20)));
+		double confirmedBefore = processed("confirmed");
+
+		List<BookingPipeline.Ticket> tickets = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			tickets.add(bookingPipeline.submit(booking(guest, homestay, NIGHT.plusDays(i)), guest.getEmail()));
+		}
+		BookingPipeline.Ticket clash = bookingPipeline.submit(booking(guest, homestay, NIGHT.plusDays(3)), guest.getEmail());
+		tickets.add(clash);
+		awaitDone(tickets);
+
+		assertThat(tickets.subList(0, 20)).allMatch(ticket -> ticket.getState() == BookingPipeline.Ticket.State.CONFIRMED);
+		assertThat(clash.getState()).isEqualTo(BookingPipeline.Ticket.State.REJECTED);
+		assertThat(clash.getMessage()).contains("already booked");
+		assertThat(bookingRepository.findByHomestayId(homestay.getId()))
+				.hasSize(20)
+				.allMatch(booking -> booking.getStatus() == Booking.Status.CONFIRMED);
+		assertThat(processed("confirmed") - confirmedBefore).isEqualTo(20);
+		assertThat(meterRegistry.get("bookings.pipeline.queue.depth").gauge().value()).isZero();
+		assertThat(bookingPipeline.find(clash.getId())).isSameAs(clash);
+	}
+
+	@Test
+	void declinedPaymentCancelsTheBookingAndFreesItsNights() throws Exception {
+		User guest = userService.registerUser(new User("declined.guest@example.com", "secret", "Declined Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Declinepeta", "Quiet room", 900.0, nights(2)));
+
+		BookingPipeline.Ticket declined;
+		ReflectionTestUtils.setField(paymentGateway, "declineRate", 1.0);
+		try {
+			declined = bookingPipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail());
+			awaitDone(List.of(declined));
+		} finally {
+			ReflectionTestUtils.setField(paymentGateway, "declineRate", 0.0);
+		}
+
+		assertThat(declined.getState()).isEqualTo(BookingPipeline.Ticket.State.CANCELLED);
+		assertThat(bookingRepository.findById(declined.getBookingId())).get()
+				.extracting(Booking::getStatus).isEqualTo(Booking.Status.CANCELLED);
+		assertThat(homestayService.findAvailableByLocationAndDates("Declinepeta", NIGHT, NIGHT.plusDays(1)))
+				.extracting(Homestay::getId).containsExactly(homestay.getId());
+
+		BookingPipeline.Ticket retry = bookingPipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail());
+		awaitDone(List.of(retry));
+		assertThat(retry.getState()).isEqualTo(BookingPipeline.Ticket.State.CONFIRMED);
+	}
+
+	@Test
+	void failedStatusUpdateRejectsTheBatchInsteadOfLeavingItPending() throws Exception {
+		User guest = userService.registerUser(new User("stuck.guest@example.com", "secret", "Stuck Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Stuckpalle", "River view", 950.0, nights(2)));
+
+		BookingPipeline.Ticket ticket;
+		Object transactionTemplate = ReflectionTestUtils.getField(bookingPipeline, "transactionTemplate");
+		ReflectionTestUtils.setField(bookingPipeline, "transactionTemplate", new TransactionTemplate() {
+			@Override
+			public <T> T execute(TransactionCallback<T> action) {
+				throw new IllegalStateException("database unavailable");
+			}
+		});
+		try {
+			ticket = bookingPipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail());
+			awaitDone(List.of(ticket));
+		} finally {
+			ReflectionTestUtils.setField(bookingPipeline, "transactionTemplate", transactionTemplate);
+		}
+
+		assertThat(ticket.getState()).isEqualTo(BookingPipeline.Ticket.State.REJECTED);
+		assertThat(ticket.getMessage()).contains("Check My Bookings");
+	}
+
+	@Test
+	void stoppingLetsTheBatchBeingChargedFinish() throws Exception {
+		User guest = userService.registerUser(new User("shutdown.guest@example.com", "secret", "Shutdown Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Shutdownpeta", "Last room", 1000.0, nights(2)));
+
+		PaymentGateway slowGateway = new PaymentGateway();
+		ReflectionTestUtils.setField(slowGateway, "latency", Duration.ofMillis(500));
+		BookingPipeline pipeline = new BookingPipeline(1, 10, 8, Duration.ofHours(1), 100, Duration.ofSeconds(10),
+				Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+		for (String field : List.of("bookingService", "bookingRepository", "transactionTemplate")) {
+			ReflectionTestUtils.setField(pipeline, field, ReflectionTestUtils.getField(bookingPipeline, field));
+		}
+		ReflectionTestUtils.setField(pipeline, "paymentGateway", slowGateway);
+		pipeline.start();
+
+		BookingPipeline.Ticket ticket = pipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail());
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (ticket.getState() != BookingPipeline.Ticket.State.PENDING) {
+			assertThat(System.currentTimeMillis()).as("booking saved in time").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+		// The payment call is in flight
+		pipeline.stop();
+
+		assertThat(ticket.getState()).isEqualTo(BookingPipeline.Ticket.State.CONFIRMED);
+		assertThat(bookingRepository.findById(ticket.getBookingId())).get()
+				.extracting(Booking::getStatus).isEqualTo(Booking.Status.CONFIRMED);
+	}
+
+	@Test
+	void bookingFormRedirectsToAStatusPageOnlyItsOwnerCanSee() throws Exception {
+		User guest = userService.registerUser(new User("status.guest@example.com", "secret", "Status Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Statuspuram", "Garden view", 1100.0, nights(2)));
+
+		MvcResult result = mockMvc.perform(post("/book").with(user(guest.getEmail()).roles("USER"))
+						.param("homestay.id", String.valueOf(homestay.getId()))
+						.param("user.id", String.valueOf(guest.getId()))
+						.param("checkInDate", NIGHT.toString())
+						.param("checkOutDate", NIGHT.plusDays(1).toString()))
+				.andExpect(status().is3xxRedirection())
+				.andReturn();
+		String location = result.getResponse().getRedirectedUrl();
+		assertThat(location).startsWith("/book/status/");
+
+		awaitDone(List.of(bookingPipeline.find(location.substring("/book/status/".length()))));
+		mockMvc.perform(get(location).with(user(guest.getEmail()).roles("USER")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Booking confirmed.")));
+		mockMvc.perform(get(location).with(user("someone.else@example.com").roles("USER")))
+				.andExpect(status().is3xxRedirection());
+	}
+
+	@Test
+	void resubmittingWithTheSameKeyReturnsTheFirstTicket() throws Exception {
+		User guest = userService.registerUser(new User("retry.guest@example.com", "secret", "Retry Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Retrypuram", "Lake view", 1300.0, nights(3)));
+		double replayedBefore = meterRegistry.get("bookings.pipeline.replayed").counter().count();
+
+		// A burst of retries of one submission
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		List<Future<BookingPipeline.Ticket>> submitted = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			submitted.add(clients.submit(() -> bookingPipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail(), "key-1")));
+		}
+		Set<BookingPipeline.Ticket> tickets = new HashSet<>();
+		for (Future<BookingPipeline.Ticket> ticket : submitted) {
+			tickets.add(ticket.get());
+		}
+		clients.shutdown();
+		assertThat(tickets).hasSize(1);
+		BookingPipeline.Ticket ticket = tickets.iterator().next();
+		awaitDone(List.of(ticket));
+
+		assertThat(ticket.getState()).isEqualTo(BookingPipeline.Ticket.State.CONFIRMED);
+		assertThat(bookingPipeline.submit(booking(guest, homestay, NIGHT), guest.getEmail(), "key-1")).isSameAs(ticket);
+		assertThat(bookingRepository.findByHomestayId(homestay.getId())).hasSize(1);
+		assertThat(meterRegistry.get("bookings.pipeline.replayed").counter().count() - replayedBefore).isEqualTo(8);
+		assertThatThrownBy(() -> bookingPipeline.submit(booking(guest, homestay, NIGHT.plusDays(1)), guest.getEmail(), "key-1"))
+				.hasMessageContaining("different details");
+		// Keys are per user
+		assertThat(bookingPipeline.submit(booking(guest, homestay, NIGHT.plusDays(1)), "someone.else@example.com", "key-1"))
+				.isNotSameAs(ticket);
+	}
+
+	@Test
+	void retriedFormPostRedirectsToTheSameStatusPage() throws Exception {
+		User guest = userService.registerUser(new User("double.click@example.com", "secret", "Double Click", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Clickpeta", "Hill stay", 1000.0, nights(2)));
+
+		List<String> redirects = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			redirects.add(mockMvc.perform(post("/book").with(user(guest.getEmail()).roles("USER"))
+							.header("Idempotency-Key", "form-42")
+							.param("homestay.id", String.valueOf(homestay.getId()))
+							.param("user.id", String.valueOf(guest.getId()))
+							.param("checkInDate", NIGHT.toString())
+							.param("checkOutDate", NIGHT.plusDays(1).toString()))
+					.andExpect(status().is3xxRedirection())
+					.andReturn().getResponse().getRedirectedUrl());
+		}
+		assertThat(redirects.get(1)).isEqualTo(redirects.get(0));
+	}
+
+	@Test
+	void postedUserIdIsIgnoredInFavourOfTheSignedInUser() throws Exception {
+		User guest = userService.registerUser(new User("signed.in.guest@example.com", "secret", "Signed In", User.Role.USER));
+		User other = userService.registerUser(new User("other.guest@example.com", "secret", "Other Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Ownerpuram", "Courtyard room", 1200.0, nights(2)));
+
+		String location = mockMvc.perform(post("/book").with(user(guest.getEmail()).roles("USER"))
+						.header("Idempotency-Key", "owner-1")
+						.param("homestay.id", String.valueOf(homestay.getId()))
+						.param("user.id", String.valueOf(other.getId()))
+						.param("checkInDate", NIGHT.toString())
+						.param("checkOutDate", NIGHT.plusDays(1).toString()))
+				.andExpect(status().is3xxRedirection())
+				.andReturn().getResponse().getRedirectedUrl();
+		BookingPipeline.Ticket ticket = bookingPipeline.find(location.substring("/book/status/".length()));
+		awaitDone(List.of(ticket));
+
+		assertThat(ticket.getOwner()).isEqualTo(guest.getEmail());
+		assertThat(bookingRepository.findByUserId(guest.getId())).extracting(Booking::getId).containsExactly(ticket.getBookingId());
+		assertThat(bookingRepository.findByUserId(other.getId())).isEmpty();
+	}
+
+	private double processed(String outcome) {
+		return meterRegistry.get("bookings.pipeline.processed").tag("outcome", outcome).counter().count();
+	}
+
+	private static Booking booking(User guest, Homestay homestay, LocalDate checkIn) {
+		Homestay target = new Homestay();
+		target.setId(homestay.getId());
+		return new Booking(guest, target, checkIn, checkIn.plusDays(1), Booking.Status.PENDING);
+	}
+
+	private static List<LocalDate> nights(int count) {
+		List<LocalDate> nights = new ArrayList<>();
+		for (int n = 0; n < count; n++) {
+			nights.add(NIGHT.plusDays(n));
+		}
+		return nights;
+	}
+
+	private static void awaitDone(List<BookingPipeline.Ticket> tickets) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!tickets.stream().allMatch(BookingPipeline.Ticket::isDone)) {
+			assertThat(System.currentTimeMillis()).as("bookings settled in time").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.config.CacheConfig;
+import com.example.stayfinder.dto.HomestayDetails;
+import com.example.stayfinder.model.Homestay;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HomestayDetailsCacheTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2033, 5, 1);
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void repeatedReadsAreServedFromCache() {
+		Homestay homestay = homestayService.save(new Homestay(null, "Cachepet", "Cached stay", 1500.0, List.of(NIGHT, NIGHT.plusDays(1))));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		double hitsBefore = hits();
+
+		statistics.clear();
+		HomestayDetails first = homestayService.findDetailsById(homestay.getId());
+		long firstStatements = statistics.getPrepareStatementCount();
+		statistics.clear();
+		HomestayDetails second = homestayService.findDetailsById(homestay.getId());
+
+		assertThat(first.availableDates()).containsExactly(NIGHT, NIGHT.plusDays(1));
+		assertThat(firstStatements).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(second).isSameAs(first);
+		assertThat(hits()).isEqualTo(hitsBefore + 1);
+	}
+
+	@Test
+	void saveAndBookingEvictTheEntry() {
+		Homestay homestay = homestayService.save(new Homestay(null, "Cachepet", "Before edit", 1500.0, List.of(NIGHT)));
+		HomestayDetails cached = homestayService.findDetailsById(homestay.getId());
+
+		homestay.setDescription("After edit");
+		homestayService.save(homestay);
+		HomestayDetails edited = homestayService.findDetailsById(homestay.getId());
+		assertThat(edited.description()).isEqualTo("After edit");
+		assertThat(edited).isNotSameAs(cached);
+
+		homestayService.recordBooking(homestay.getId(), NIGHT, NIGHT.plusDays(1));
+		assertThat(homestayService.findDetailsById(homestay.getId())).isNotSameAs(edited);
+	}
+
+	private double hits() {
+		return meterRegistry.get("cache.gets").tag("cache", CacheConfig.HOMESTAY_DETAILS).tag("result", "hit")
+				.functionCounter().count();
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.dto.NearbyHomestay;
+import com.example.stayfinder.index.GeoIndex;
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class HomestayGeoSearchTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2040, 6, 1);
+
+	// Tirumala
+	private static final double LAT = 13.6833;
+	private static final double LNG = 79.3474;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private GeoIndex geoIndex;
+
+	@Test
+	void nearbyReturnsAvailableHomestaysNearestFirst() {
+		Homestay temple = homestayService.save(located("Tirumala", 13.6800, 79.3500));
+		Homestay town = homestayService.save(located("Tirupati", 13.6288, 79.4192));
+		homestayService.save(located("Chittoor", 13.2172, 79.1003));
+		homestayService.save(new Homestay(null, "Tirumala", "No map position", 1000.0, List.of(NIGHT)));
+
+		assertThat(homestayService.findNearby(LAT, LNG, 20, NIGHT, NIGHT.plusDays(1), 10))
+				.extracting(NearbyHomestay::id).containsExactly(temple.getId(), town.getId());
+
+		User guest = userService.registerUser(new User("geo.guest@example.com", "secret", "Geo Guest", User.Role.USER));
+		bookingService.createBooking(new Booking(guest, temple, NIGHT, NIGHT.plusDays(1), Booking.Status.PENDING));
+
+		List<NearbyHomestay> nearby = homestayService.findNearby(LAT, LNG, 20, NIGHT, NIGHT.plusDays(1), 10);
+		assertThat(nearby).extracting(NearbyHomestay::id).containsExactly(town.getId());
+		assertThat(nearby.get(0).distanceKm()).isBetween(9.0, 11.0);
+
+		// Without the availability index the nearest hits are loaded in rounds until one is free
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", false);
+		try {
+			assertThat(homestayService.findNearby(LAT, LNG, 20, NIGHT, NIGHT.plusDays(1), 1))
+					.extracting(NearbyHomestay::id).containsExactly(town.getId());
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+		}
+	}
+
+	@Test
+	void boxSearchAndDatabaseFallbackAgree() {
+		Homestay first = homestayService.save(located("Kondapalli", 16.6200, 80.5400));
+		Homestay second = homestayService.save(located("Ibrahimpatnam", 16.5850, 80.5200));
+		GeoIndex.Box box = new GeoIndex.Box(16.57, 80.50, 16.63, 80.56);
+
+		List<Long> indexed = homestayService.findWithin(box, NIGHT, NIGHT.plusDays(1), 10).stream().map(NearbyHomestay::id).toList();
+		assertThat(indexed).containsExactlyInAnyOrder(first.getId(), second.getId());
+
+		ReflectionTestUtils.setField(geoIndex, "ready", false);
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", false);
+		try {
+			assertThat(homestayService.findWithin(box, NIGHT, NIGHT.plusDays(1), 10))
+					.extracting(NearbyHomestay::id).containsExactlyElementsOf(indexed);
+			assertThat(homestayService.findNearby(16.6200, 80.5400, 1, NIGHT, NIGHT.plusDays(1), 10))
+					.extracting(NearbyHomestay::id).containsExactly(first.getId());
+		} finally {
+			ReflectionTestUtils.setField(geoIndex, "ready", true);
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+		}
+	}
+
+	@Test
+	void rejectsOutOfRangeQueries() {
+		assertThatThrownBy(() -> homestayService.findNearby(95, LNG, 10, NIGHT, NIGHT.plusDays(1), 10))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> homestayService.findNearby(LAT, LNG, 0, NIGHT, NIGHT.plusDays(1), 10))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> homestayService.findNearby(LAT, LNG, 10_000, NIGHT, NIGHT.plusDays(1), 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Homestay located(String location, double latitude, double longitude) {
+		Homestay homestay = new Homestay(null, location, "Geo stay", 1000.0, List.of(NIGHT));
+		homestay.setLatitude(latitude);
+		homestay.setLongitude(longitude);
+		return homestay;
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.dto.ImportReport;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.HomestayRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "importer.batch-size=2")
+@AutoConfigureMockMvc
+class HomestayImportServiceTests {
+
+	@Autowired
+	private HomestayImportService importService;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private HomestayRepository homestayRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void importsJsonAcrossBatchesAndDedupesHosts() throws Exception {
+		String json = """
+				[
+				  {"hostEmail": "feed.host1@example.com", "hostName": "Feed Host", "location": "Importnagar",
+				   "description": "First", "price": 1100, "availableDates": ["2034-01-01", "2034-01-02", "not-a-date"]},
+				  {"hostEmail": "feed.host1@example.com", "hostName": "Feed Host", "location": "Importnagar",
+				   "description": "Second", "price": 1200.5, "availableDates": ["2034-01-01"], "ignored": {"nested": [1, 2]}},
+				  {"hostEmail": "feed.host2@example.com", "location": "Importnagar", "description": "Third", "price": "900"},
+				  {"hostEmail": "feed.host2@example.com", "location": "Importnagar", "description": "No price"}
+				]
+				""";
+
+		ImportReport report = importService.importJson(stream(json));
+
+		assertThat(report.imported()).isEqualTo(3);
+		assertThat(report.skipped()).isEqualTo(1);
+		assertThat(report.hostsCreated()).isEqualTo(2);
+		List<Homestay> imported = homestayService.findByLocation("Importnagar");
+		assertThat(imported).extracting(Homestay::getDescription).containsExactlyInAnyOrder("First", "Second", "Third");
+		User host = userService.findByEmail("feed.host1@example.com");
+		assertThat(host.getRole()).isEqualTo(User.Role.HOST);
+		assertThat(homestayRepository.findDetailsById(imported.get(0).getId()).orElseThrow().getHost().getId()).isNotNull();
+		// Search structures see the new rows without a restart
+		assertThat(homestayService.findAvailableByLocationAndDates("importnagar", LocalDate.of(2034, 1, 1), LocalDate.of(2034, 1, 2)))
+				.extracting(Homestay::getDescription).containsExactlyInAnyOrder("First", "Second");
+	}
+
+	@Test
+	void importsCsvWithQuotedFieldsAndExistingHosts() throws Exception {
+		User existing = userService.registerUser(new User("csv.existing@example.com", "secret", "Existing Host", User.Role.HOST));
+		String csv = """
+				hostEmail,hostName,location,description,price,availableDates
+				csv.existing@example.com,Existing Host,Csvpuram,"Quiet, airy room with ""garden"" view",1500,2034-02-01;2034-02-02
+				csv.host@example.com,Csv Host,Csvpuram,Plain room,800,
+				""";
+
+		ImportReport report = importService.importCsv(stream(csv));
+
+		assertThat(report.imported()).isEqualTo(2);
+		assertThat(report.hostsCreated()).isEqualTo(1);
+		List<Homestay> imported = homestayService.findByLocation("Csvpuram");
+		assertThat(imported).extracting(Homestay::getDescription)
+				.containsExactlyInAnyOrder("Quiet, airy room with \"garden\" view", "Plain room");
+		Homestay withDates = homestayRepository.findById(
+				imported.stream().filter(h -> h.getPrice() == 1500.0).findFirst().orElseThrow().getId()).orElseThrow();
+		assertThat(withDates.getAvailableDates()).containsExactlyInAnyOrder(LocalDate.of(2034, 2, 1), LocalDate.of(2034, 2, 2));
+		assertThat(homestayRepository.findDetailsById(withDates.getId()).orElseThrow().getHost().getId()).isEqualTo(existing.getId());
+	}
+
+	@Test
+	void rowsWithoutHostAreListedUnderTheCommunityHost() throws Exception {
+		String csv = """
+				location,description,price
+				Hostlesspet,No host given,650
+				""";
+
+		ImportReport report = importService.importCsv(stream(csv));
+
+		assertThat(report.imported()).isEqualTo(1);
+		Homestay imported = homestayService.findByLocation("Hostlesspet").get(0);
+		assertThat(homestayRepository.findDetailsById(imported.getId()).orElseThrow().getHost().getEmail())
+				.isEqualTo(HomestayImportService.DEFAULT_HOST_EMAIL);
+	}
+
+	@Test
+	void failedImportKeepsCommittedBatchesSearchable() {
+		// The first batch of two is committed before the parser reaches the broken third object
+		String json = """
+				[
+				  {"hostEmail": "partial.host@example.com", "location": "Partialpuram", "description": "One", "price": 700, "availableDates": ["2034-03-01"]},
+				  {"hostEmail": "partial.host@example.com", "location": "Partialpuram", "description": "Two", "price": 710, "availableDates": ["2034-03-01"]},
+				  {"hostEmail": "partial.host@example.com", "location": "Partialpuram", "description": "Three", "price": 720,
+				""";
+
+		assertThatThrownBy(() -> importService.importJson(stream(json)))
+				.isInstanceOf(IOException.class)
+				.hasMessageStartingWith("Import stopped after 2 homestays");
+
+		assertThat(homestayService.findAvailableByLocationAndDates("partialpuram", LocalDate.of(2034, 3, 1), LocalDate.of(2034, 3, 2)))
+				.extracting(Homestay::getDescription).containsExactlyInAnyOrder("One", "Two");
+	}
+
+	@Test
+	void adminEndpointAcceptsUploads() throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "feed.csv", "text/csv",
+				"location,description,price\nUploadpet,Uploaded,700\n".getBytes(StandardCharsets.UTF_8));
+
+		mockMvc.perform(multipart("/admin/import").file(file).with(user("admin@example.com").roles("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(1));
+		mockMvc.perform(multipart("/admin/import").file(file).with(user("guest@example.com").roles("USER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(multipart("/admin/import")
+						.file(new MockMultipartFile("file", "feed.xml", "text/xml", new byte[0]))
+						.with(user("admin@example.com").roles("ADMIN")))
+				.andExpect(status().isBadRequest());
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
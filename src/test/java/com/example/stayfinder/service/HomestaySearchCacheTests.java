@@ -0,0 +1,63 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.index.SearchResultCache;
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HomestaySearchCacheTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2038, 2, 1);
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private SearchResultCache searchResultCache;
+
+	@Test
+	void bookingEvictsTheCachedSearchItMakesStale() {
+		User guest = userService.registerUser(new User("cache.guest@example.com", "secret", "Cache Guest", User.Role.USER));
+		Homestay homestay = homestayService.save(new Homestay(null, "Cachepuram", "Only stay", 1000.0, List.of(NIGHT, NIGHT.plusDays(5))));
+		SearchResultCache.Key firstNight = SearchResultCache.Key.of("cachepuram", NIGHT, NIGHT.plusDays(1));
+		SearchResultCache.Key laterNight = SearchResultCache.Key.of("cachepuram", NIGHT.plusDays(5), NIGHT.plusDays(6));
+
+		assertThat(homestayService.findAvailableByLocationAndDates("Cachepuram", NIGHT, NIGHT.plusDays(1))).hasSize(1);
+		assertThat(homestayService.findAvailableByLocationAndDates("Cachepuram", NIGHT.plusDays(5), NIGHT.plusDays(6))).hasSize(1);
+		assertThat(searchResultCache.get(firstNight)).containsExactly(homestay.getId());
+		// Served from the cache
+		assertThat(homestayService.findAvailableByLocationAndDates("cachepuram ", NIGHT, NIGHT.plusDays(1)))
+				.extracting(Homestay::getId).containsExactly(homestay.getId());
+
+		bookingService.createBooking(new Booking(guest, homestay, NIGHT, NIGHT.plusDays(1), Booking.Status.PENDING));
+
+		assertThat(searchResultCache.get(firstNight)).isNull();
+		assertThat(searchResultCache.get(laterNight)).containsExactly(homestay.getId());
+		assertThat(homestayService.findAvailableByLocationAndDates("Cachepuram", NIGHT, NIGHT.plusDays(1))).isEmpty();
+	}
+
+	@Test
+	void newListingShowsUpInCachedSearches() {
+		assertThat(homestayService.findAvailableByLocationAndDates("Newlistingpet", NIGHT, NIGHT.plusDays(2))).isEmpty();
+
+		Homestay added = homestayService.save(new Homestay(null, "Newlistingpet", "Fresh", 900.0, List.of(NIGHT.plusDays(1))));
+
+		assertThat(homestayService.findAvailableByLocationAndDates("Newlistingpet", NIGHT, NIGHT.plusDays(2)))
+				.extracting(Homestay::getId).containsExactly(added.getId());
+	}
+}
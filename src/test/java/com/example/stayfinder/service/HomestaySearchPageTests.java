@@ -0,0 +1,181 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.dto.SearchFilter;
+import com.example.stayfinder.dto.SearchPage;
+import com.example.stayfinder.model.Homestay;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HomestaySearchPageTests {
+
+	private static final String LOCATION = "Pagingpuram";
+	private static final LocalDate CHECK_IN = LocalDate.of(2031, 3, 1);
+	private static final LocalDate CHECK_OUT = LocalDate.of(2031, 3, 3);
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private List<Homestay> saved;
+
+	private List<Long> expected;
+
+	@BeforeAll
+	void seed() {
+		saved = new ArrayList<>();
+		for (int i = 0; i < 23; i++) {
+			// Repeated prices exercise the id tie-breaker; every fifth listing is not available
+			List<LocalDate> nights = i % 5 == 4 ? List.of(CHECK_OUT.plusDays(5)) : List.of(CHECK_IN, CHECK_IN.plusDays(1));
+			Homestay homestay = new Homestay(null, LOCATION, "Listing " + i, 1000.0 + (i % 4) * 250, nights);
+			homestay.setCapacity(1 + i % 6);
+			saved.add(homestayService.save(homestay));
+		}
+		expected = saved.stream()
+				.filter(h -> h.getAvailableDates().contains(CHECK_IN))
+				.sorted(Comparator.comparing(Homestay::getPrice).thenComparing(Homestay::getId))
+				.map(Homestay::getId)
+				.toList();
+	}
+
+	@ParameterizedTest(name = "availability index enabled: {0}")
+	@ValueSource(booleans = {true, false})
+	void pagesForwardAndBackThroughEveryResult(boolean indexEnabled) {
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", indexEnabled);
+		// Cached pages would hide which path answered
+		ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", indexEnabled);
+		try {
+			List<SearchPage<Homestay>> pages = new ArrayList<>();
+			List<Long> forward = new ArrayList<>();
+			String after = null;
+			do {
+				SearchPage<Homestay> page = homestayService.searchPage(LOCATION, CHECK_IN, CHECK_OUT, after, null, 5);
+				assertThat(page.items()).hasSizeLessThanOrEqualTo(5);
+				page.items().forEach(h -> forward.add(h.getId()));
+				pages.add(page);
+				after = page.next();
+			} while (after != null);
+			assertThat(forward).containsExactlyElementsOf(expected);
+			assertThat(pages.get(0).prev()).isNull();
+
+			// Walking back from the last page revisits the same pages
+			List<Long> backward = new ArrayList<>();
+			String before = pages.get(pages.size() - 1).prev();
+			while (before != null) {
+				SearchPage<Homestay> page = homestayService.searchPage(LOCATION, CHECK_IN, CHECK_OUT, null, before, 5);
+				backward.addAll(0, page.items().stream().map(Homestay::getId).toList());
+				before = page.prev();
+			}
+			assertThat(backward).containsExactlyElementsOf(expected.subList(0, expected.size() - pages.get(pages.size() - 1).items().size()));
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+			ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", true);
+		}
+	}
+
+	@ParameterizedTest(name = "availability index enabled: {0}")
+	@ValueSource(booleans = {true, false})
+	void filtersPriceAndGuestsAndPagesInDescendingOrder(boolean indexEnabled) {
+		SearchFilter filter = new SearchFilter(1200.0, 1700.0, 3, SearchFilter.Sort.PRICE_DESC);
+		List<Long> matching = saved.stream()
+				.filter(h -> h.getAvailableDates().contains(CHECK_IN) && filter.accepts(h))
+				.sorted(Comparator.comparing(Homestay::getPrice).thenComparing(Homestay::getId).reversed())
+				.map(Homestay::getId)
+				.toList();
+		assertThat(matching).hasSizeGreaterThan(3);
+
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", indexEnabled);
+		ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", indexEnabled);
+		try {
+			List<Long> forward = new ArrayList<>();
+			SearchPage<Homestay> last = null;
+			String after = null;
+			do {
+				last = homestayService.searchPage(LOCATION, CHECK_IN, CHECK_OUT, after, null, 3, filter);
+				last.items().forEach(h -> forward.add(h.getId()));
+				after = last.next();
+			} while (after != null);
+			assertThat(forward).containsExactlyElementsOf(matching);
+
+			List<Long> backward = new ArrayList<>();
+			String before = last.prev();
+			while (before != null) {
+				SearchPage<Homestay> page = homestayService.searchPage(LOCATION, CHECK_IN, CHECK_OUT, null, before, 3, filter);
+				backward.addAll(0, page.items().stream().map(Homestay::getId).toList());
+				before = page.prev();
+			}
+			assertThat(backward).containsExactlyElementsOf(matching.subList(0, matching.size() - last.items().size()));
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+			ReflectionTestUtils.setField(homestayService, "resultCacheEnabled", true);
+		}
+	}
+
+	@Test
+	void pageSizeIsCapped() {
+		assertThat(homestayService.searchPage("", CHECK_IN, CHECK_OUT, null, null, 10_000).size())
+				.isEqualTo(HomestayService.MAX_PAGE_SIZE);
+	}
+
+	@Test
+	void jsonVariantReturnsSummaries() throws Exception {
+		mockMvc.perform(post("/search").accept(MediaType.APPLICATION_JSON)
+						.param("location", LOCATION).param("checkIn", CHECK_IN.toString()).param("checkOut", CHECK_OUT.toString())
+						.param("size", "4"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(4))
+				.andExpect(jsonPath("$.items[0].id").value(expected.get(0)))
+				.andExpect(jsonPath("$.next").isNotEmpty())
+				.andExpect(jsonPath("$.prev").isEmpty());
+	}
+
+	@Test
+	void tamperedPageTokenIsRejected() throws Exception {
+		mockMvc.perform(post("/search")
+						.param("location", LOCATION).param("checkIn", CHECK_IN.toString()).param("checkOut", CHECK_OUT.toString())
+						.param("after", "not-a-token"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/search").accept(MediaType.APPLICATION_JSON)
+						.param("location", LOCATION).param("checkIn", CHECK_IN.toString()).param("checkOut", CHECK_OUT.toString())
+						.param("before", "MTAwMC4w"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void textSearchFallbackIsShownWithoutKeysetPaging() throws Exception {
+		// No location contains "listing"; the descriptions do, so the full-text fallback answers
+		mockMvc.perform(post("/search")
+						.param("location", "listing").param("checkIn", CHECK_IN.toString()).param("checkOut", CHECK_OUT.toString())
+						.param("size", "4"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Pagingpuram")))
+				.andExpect(content().string(not(containsString("name=\"after\""))))
+				.andExpect(content().string(not(containsString("name=\"before\""))));
+	}
+}
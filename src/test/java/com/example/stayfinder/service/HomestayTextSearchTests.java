@@ -0,0 +1,60 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HomestayTextSearchTests {
+
+	private static final LocalDate NIGHT = LocalDate.of(2039, 3, 1);
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void findsSavedHomestaysByAliasAndDescriptionWithinTheDates() {
+		Homestay beach = homestayService.save(new Homestay(null, "Rushikonda, Visakhapatnam", "Lighthouse cottage on the beach", 2000.0, List.of(NIGHT)));
+		Homestay hills = homestayService.save(new Homestay(null, "Visakhapatnam", "Lighthouse view from the hills", 1500.0, List.of(NIGHT)));
+		homestayService.save(new Homestay(null, "Visakhapatnam", "Lighthouse suite", 1800.0, List.of(NIGHT.plusDays(7))));
+
+		assertThat(homestayService.searchText("vizag lighthouse beach", NIGHT, NIGHT.plusDays(1), 10))
+				.extracting(Homestay::getId).containsExactly(beach.getId(), hills.getId());
+
+		User guest = userService.registerUser(new User("text.guest@example.com", "secret", "Text Guest", User.Role.USER));
+		bookingService.createBooking(new Booking(guest, beach, NIGHT, NIGHT.plusDays(1), Booking.Status.PENDING));
+
+		assertThat(homestayService.searchText("vizag lighthouse beach", NIGHT, NIGHT.plusDays(1), 10))
+				.extracting(Homestay::getId).containsExactly(hills.getId());
+	}
+
+	@Test
+	void databaseFallbackKeepsTheRanking() {
+		Homestay exact = homestayService.save(new Homestay(null, "Bezawada", "Riverside terrace flat", 1200.0, List.of(NIGHT)));
+		Homestay partial = homestayService.save(new Homestay(null, "Krishna", "Terrace flat", 900.0, List.of(NIGHT)));
+
+		ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", false);
+		try {
+			assertThat(homestayService.searchText("vijayawada terrace", NIGHT, NIGHT.plusDays(1), 10))
+					.extracting(Homestay::getId).containsExactly(exact.getId(), partial.getId());
+			assertThat(homestayService.searchText("vijayawada terrace", NIGHT.plusDays(1), NIGHT.plusDays(2), 10)).isEmpty();
+		} finally {
+			ReflectionTestUtils.setField(homestayService, "availabilityIndexEnabled", true);
+		}
+	}
+}
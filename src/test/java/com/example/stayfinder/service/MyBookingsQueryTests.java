@@ -0,0 +1,91 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.BookingRepository;
+import com.example.stayfinder.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MyBookingsQueryTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void bookingsPageQueryCountDoesNotGrowWithBookings() throws Exception {
+		User few = createUserWithBookings("few.bookings@example.com", 1);
+		User many = createUserWithBookings("many.bookings@example.com", 25);
+
+		long fewStatements = statementsToRender(few);
+		long manyStatements = statementsToRender(many);
+
+		assertThat(manyStatements).isEqualTo(fewStatements);
+	}
+
+	@Test
+	void bookingViewsCarryHomestaySummaries() {
+		User user = createUserWithBookings("summary.bookings@example.com", 3);
+
+		var views = bookingRepository.findViewsByUserId(user.getId());
+
+		assertThat(views).hasSize(3);
+		assertThat(views).allSatisfy(view -> {
+			assertThat(view.homestay().location()).isEqualTo("Querypalem");
+			assertThat(view.homestay().price()).isNotNull();
+		});
+		// Newest stay first
+		assertThat(views.get(0).checkInDate()).isAfter(views.get(2).checkInDate());
+	}
+
+	private long statementsToRender(User user) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get("/bookings").with(user(user.getEmail())))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Querypalem")));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private User createUserWithBookings(String email, int bookings) {
+		User user = userRepository.save(new User(email, "{noop}secret", "Query Tester", User.Role.USER));
+		LocalDate first = LocalDate.of(2032, 1, 1);
+		for (int i = 0; i < bookings; i++) {
+			// A separate homestay per booking, so lazily loading them would cost one query each
+			Homestay homestay = homestayService.save(new Homestay(null, "Querypalem", "Stay " + i, 900.0 + i, List.of(first.plusDays(i))));
+			bookingRepository.save(new Booking(user, homestay, first.plusDays(i), first.plusDays(i + 1), Booking.Status.PENDING));
+		}
+		return user;
+	}
+}
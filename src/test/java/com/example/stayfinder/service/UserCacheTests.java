@@ -0,0 +1,95 @@
+package com.example.stayfinder.service;
+
+import com.example.stayfinder.dto.UserAccount;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserCacheTests {
+
+	// A hash as stored before hashes carried an {id} prefix
+	private static final String LEGACY_HASH = new BCryptPasswordEncoder().encode("hostpass");
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void repeatedLookupsAreServedFromCacheUntilThePasswordChanges() {
+		User user = userService.registerUser(new User("cached.user@example.com", "secret", "Cached User", User.Role.HOST));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		UserAccount first = userService.findAccount("cached.user@example.com");
+		statistics.clear();
+		UserAccount second = userService.findAccount("cached.user@example.com");
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(second).isSameAs(first)
+				.isEqualTo(new UserAccount(user.getId(), "cached.user@example.com", user.getPassword(), User.Role.HOST));
+
+		userService.updatePasswordHash("cached.user@example.com", "{noop}changed");
+		assertThat(userService.findAccount("cached.user@example.com").passwordHash()).isEqualTo("{noop}changed");
+	}
+
+	@Test
+	void registrationIsVisibleAfterAMissedLookup() {
+		assertThat(userService.findAccount("late.user@example.com")).isNull();
+
+		userService.registerUser(new User("late.user@example.com", "secret", "Late User", User.Role.USER));
+
+		assertThat(userService.findAccount("late.user@example.com")).isNotNull();
+	}
+
+	@Test
+	void newPasswordsArePrefixedAndLegacyHashesStillMatch() {
+		String encoded = passwordEncoder.encode("secret");
+
+		assertThat(encoded).startsWith("{bcrypt}");
+		assertThat(passwordEncoder.matches("secret", encoded)).isTrue();
+		assertThat(passwordEncoder.matches("hostpass", LEGACY_HASH)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(LEGACY_HASH)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(encoded)).isFalse();
+	}
+
+	@Test
+	void loginWithALegacyHashReencodesIt() throws Exception {
+		userRepository.save(new User("legacy.user@example.com", LEGACY_HASH, "Legacy User", User.Role.USER));
+
+		mockMvc.perform(formLogin("/login").user("legacy.user@example.com").password("wrong")).andExpect(unauthenticated());
+		mockMvc.perform(formLogin("/login").user("legacy.user@example.com").password("hostpass")).andExpect(authenticated());
+
+		String stored = userRepository.findByEmail("legacy.user@example.com").orElseThrow().getPassword();
+		assertThat(stored).startsWith("{bcrypt}");
+		assertThat(userService.findAccount("legacy.user@example.com").passwordHash()).isEqualTo(stored);
+		// Served from the cache, the account still logs in: its UserDetails is rebuilt per login
+		mockMvc.perform(formLogin("/login").user("legacy.user@example.com").password("hostpass")).andExpect(authenticated());
+		mockMvc.perform(formLogin("/login").user("legacy.user@example.com").password("hostpass")).andExpect(authenticated());
+	}
+}
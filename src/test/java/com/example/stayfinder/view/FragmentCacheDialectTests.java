@@ -0,0 +1,58 @@
+package com.example.stayfinder.view;
+
+import com.example.stayfinder.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.thymeleaf.cache=true")
+@AutoConfigureMockMvc
+class FragmentCacheDialectTests {
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void anonymousNavbarAndDistrictsAreRenderedOnceAndReused() throws Exception {
+		Cache fragments = cacheManager.getCache(CacheConfig.FRAGMENTS);
+		fragments.clear();
+
+		mockMvc.perform(get("/search"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("href=\"/register\"")))
+				.andExpect(content().string(containsString("<option value=\"Guntur\">Guntur</option>")))
+				.andExpect(content().string(not(containsString("sf:cache"))));
+		assertThat(fragments.get("navbar:anonymous", String.class)).contains("<nav").doesNotContain("th:");
+		assertThat(fragments.get("districts", String.class)).startsWith("<datalist id=\"districts\">");
+
+		// Later pages write the stored HTML instead of rendering the fragment
+		fragments.put("navbar:anonymous", "<nav>cached navbar</nav>");
+		mockMvc.perform(get("/search"))
+				.andExpect(content().string(containsString("<nav>cached navbar</nav>")));
+	}
+
+	@Test
+	void signedInUsersGetTheirOwnNavbar() throws Exception {
+		cacheManager.getCache(CacheConfig.FRAGMENTS).put("navbar:anonymous", "<nav>cached navbar</nav>");
+
+		mockMvc.perform(get("/search").with(user("navbar.user@example.com").roles("USER")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("navbar.user@example.com")))
+				.andExpect(content().string(not(containsString("cached navbar"))));
+	}
+}
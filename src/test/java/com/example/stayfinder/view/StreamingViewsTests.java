@@ -0,0 +1,88 @@
+package com.example.stayfinder.view;
+
+import com.example.stayfinder.model.Booking;
+import com.example.stayfinder.model.Homestay;
+import com.example.stayfinder.model.User;
+import com.example.stayfinder.repository.BookingRepository;
+import com.example.stayfinder.repository.UserRepository;
+import com.example.stayfinder.service.HomestayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.stringContainsInOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "views.streaming.chunk-size=2")
+@AutoConfigureMockMvc
+class StreamingViewsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HomestayService homestayService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Test
+	void chunkCallbackRunsBetweenChunksAndLookingAheadKeepsRows() {
+		AtomicInteger chunks = new AtomicInteger();
+		StreamedRows<Integer> rows = new StreamedRows<>(List.of(1, 2, 3, 4, 5).iterator(), 2, chunks::incrementAndGet);
+
+		assertThat(rows.isEmpty()).isFalse();
+		List<Integer> seen = new ArrayList<>();
+		for (Integer row : rows) {
+			seen.add(row);
+		}
+
+		assertThat(seen).containsExactly(1, 2, 3, 4, 5);
+		// Before rows 3 and 5; nothing after the last row
+		assertThat(chunks).hasValue(2);
+		assertThatThrownBy(rows::iterator).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void bookingsPageStreamsEveryRowInOrder() throws Exception {
+		User user = userRepository.save(new User("streamed.bookings@example.com", "{noop}secret", "Stream Tester", User.Role.USER));
+		LocalDate first = LocalDate.of(2033, 3, 1);
+		for (int i = 0; i < 5; i++) {
+			Homestay homestay = homestayService.save(new Homestay(null, "Streampalem " + i, "Stay " + i, 700.0 + i, List.of(first.plusDays(i))));
+			bookingRepository.save(new Booking(user, homestay, first.plusDays(i), first.plusDays(i + 1), Booking.Status.PENDING));
+		}
+
+		mockMvc.perform(get("/bookings").with(user(user.getEmail())))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith("text/html"))
+				.andExpect(content().string(stringContainsInOrder(
+						"Streampalem 4", "Streampalem 3", "Streampalem 2", "Streampalem 1", "Streampalem 0", "Back to Search")))
+				.andExpect(content().string(not(containsString("You have no bookings yet"))));
+	}
+
+	@Test
+	void userWithoutBookingsGetsTheEmptyState() throws Exception {
+		User user = userRepository.save(new User("no.streamed.bookings@example.com", "{noop}secret", "Stream Tester", User.Role.USER));
+
+		mockMvc.perform(get("/bookings").with(user(user.getEmail())))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("You have no bookings yet")));
+	}
+}